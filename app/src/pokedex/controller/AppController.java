@@ -2,17 +2,19 @@ package pokedex.controller;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.net.URL;
 import java.util.List;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.ArrayList;
 
+import pokedex.model.AbilityIndex;
 import pokedex.model.Pokemon;
 import pokedex.model.PokemonDetails;
 import pokedex.service.PokeApiService;
 import pokedex.ui.DetailsView;
 import pokedex.ui.LoadingView;
+import pokedex.ui.PreloadIndicator;
 import pokedex.ui.SearchView;
 import pokedex.util.ErrorHandler;
 import pokedex.util.ImageCache;
@@ -36,11 +38,6 @@ public class AppController implements LoadingSubject {
     private static final String SEARCH_VIEW = "search";
     private static final String DETAILS_VIEW = "details";
     
-    // Image loading configuration
-    private static final int IMAGE_LOAD_TIMEOUT_MINUTES = 5;
-    private static final int IMAGE_LOAD_THREAD_POOL_SIZE = 
-        Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
-
     // UI components
     private final JFrame mainFrame;
     private final CardLayout cardLayout;
@@ -54,6 +51,7 @@ public class AppController implements LoadingSubject {
     // Services and data
     private final PokeApiService apiService;
     private List<Pokemon> pokemonData;
+    private PreloadJob preloadJob;
     
     // Observer pattern support
     private final List<LoadingObserver> loadingObservers = new ArrayList<>();
@@ -114,6 +112,13 @@ public class AppController implements LoadingSubject {
         }
     }
 
+    @Override
+    public void notifyEtaUpdate(long remainingSeconds) {
+        for (LoadingObserver observer : loadingObservers) {
+            observer.onEtaUpdate(remainingSeconds);
+        }
+    }
+
     @Override
     public void notifyProgressBarVisibilityChange(boolean visible) {
         for (LoadingObserver observer : loadingObservers) {
@@ -166,7 +171,13 @@ public class AppController implements LoadingSubject {
     private void configureMainFrame() {
         mainFrame.setSize(900, 680);
         mainFrame.setLocationRelativeTo(null);
-        mainFrame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+        mainFrame.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        mainFrame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                exitApplication();
+            }
+        });
         mainFrame.getContentPane().setBackground(UIConstants.Colors.BACKGROUND);
         mainFrame.setContentPane(rootPanel);
         mainFrame.setVisible(true);
@@ -205,7 +216,6 @@ public class AppController implements LoadingSubject {
             @Override
             protected Void doInBackground() throws Exception {
                 loadPokemonData();
-                preloadPokemonImages();
                 return null;
             }
 
@@ -228,63 +238,54 @@ public class AppController implements LoadingSubject {
     }
 
     /**
-     * Preloads Pokemon images for better user experience.
-     */
-    private void preloadPokemonImages() throws InterruptedException {
-        ExecutorService imageLoadingPool = createImageLoadingPool();
-        AtomicInteger loadedCount = new AtomicInteger(0);
-        int totalCount = pokemonData.size();
-
-        submitImageLoadingTasks(imageLoadingPool, loadedCount, totalCount);
-        shutdownImageLoadingPool(imageLoadingPool);
-    }
-
-    /**
-     * Creates a thread pool for image loading tasks.
-     */
-    private ExecutorService createImageLoadingPool() {
-        return Executors.newFixedThreadPool(IMAGE_LOAD_THREAD_POOL_SIZE);
-    }
-
-    /**
-     * Submits image loading tasks to the thread pool.
-     */
-    private void submitImageLoadingTasks(ExecutorService pool, AtomicInteger loadedCount, int totalCount) {
-        for (Pokemon pokemon : pokemonData) {
-            pool.submit(() -> {
-                loadSinglePokemonImage(pokemon);
-                updateImageLoadingProgress(loadedCount.incrementAndGet(), totalCount);
-            });
-        }
-    }
-
-    /**
-     * Loads a single Pokemon image with error handling.
+     * Starts preloading Pokemon images in the background once the search view is shown.
+     * Progress is reported to the preload indicator in the search view's footer instead
+     * of the loading screen; the indicator's buttons pause, resume or cancel the preload.
      */
-    private void loadSinglePokemonImage(Pokemon pokemon) {
-        try {
-            ImageCache.load(pokemon.getId());
-        } catch (Exception e) {
-            System.err.println("Failed to load image for Pokemon " + pokemon.getId() + ": " + e.getMessage());
-        }
-    }
+    private void startBackgroundPreload() {
+        removeLoadingObserver(loadingView);
+        PreloadIndicator indicator = searchView.getPreloadIndicator();
+        addLoadingObserver(indicator);
+        notifyStatusChange(UIConstants.Strings.PRELOAD_STATUS);
+        
+        PreloadJob job = new PreloadJob(searchView.getDisplayOrder(), this);
+        preloadJob = job;
+        indicator.setControls(job::pause, job::resume, job::cancel);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                job.run();
+                return null;
+            }
 
-    /**
-     * Updates the loading progress UI using observer pattern.
-     */
-    private void updateImageLoadingProgress(int current, int total) {
-        SwingUtilities.invokeLater(() -> notifyProgressUpdate(current, total));
+            @Override
+            protected void done() {
+                notifyLoadingComplete();
+            }
+        }.execute();
     }
 
     /**
-     * Shuts down the image loading thread pool with timeout.
+     * Closes the window at once and exits once background work has stopped: the
+     * preload saves its cursor, the image cache flushes pending writes and its
+     * manifest, and the API response store is flushed and closed. That runs on its own thread, so waiting for downloads on a slow
+     * link never freezes the Event Dispatch Thread.
      */
-    private void shutdownImageLoadingPool(ExecutorService pool) throws InterruptedException {
-        pool.shutdown();
-        if (!pool.awaitTermination(IMAGE_LOAD_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
-            pool.shutdownNow();
-            ErrorHandler.showTimeoutError(mainFrame, "ładowanie obrazków Pokémonów");
-        }
+    private void exitApplication() {
+        mainFrame.dispose();
+        PreloadJob job = preloadJob;
+        Thread shutdownThread = new Thread(() -> {
+            try {
+                if (job != null) {
+                    job.cancel();
+                }
+                ImageCache.shutdown();
+                PokeApiService.shutdown();
+            } finally {
+                System.exit(0);
+            }
+        }, "application-shutdown");
+        shutdownThread.start();
     }
 
     /**
@@ -363,6 +364,8 @@ public class AppController implements LoadingSubject {
                     searchView = get();
                     rootPanel.add(searchView, SEARCH_VIEW);
                     showSearchView();
+                    loadAbilityIndex();
+                    startBackgroundPreload();
                 } catch (Exception e) {
                     handleSearchViewCreationError(e);
                 }
@@ -370,6 +373,28 @@ public class AppController implements LoadingSubject {
         }.execute();
     }
 
+    /**
+     * Builds the ability index in the background and hands it to the search view.
+     * Ability search is optional, so failures are only logged.
+     */
+    private void loadAbilityIndex() {
+        new SwingWorker<AbilityIndex, Void>() {
+            @Override
+            protected AbilityIndex doInBackground() throws Exception {
+                return apiService.fetchAbilityIndex();
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    searchView.setAbilityIndex(get());
+                } catch (Exception e) {
+                    System.err.println("Failed to load ability index: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
     /**
      * Displays the search view.
      */
@@ -0,0 +1,316 @@
+package pokedex.controller;
+
+import pokedex.model.Pokemon;
+import pokedex.util.CacheLocation;
+import pokedex.util.ImageCache;
+import pokedex.util.LoadingSubject;
+import pokedex.util.UIConstants;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background job that preloads the grid thumbnails in display order.
+ * Thumbnails are only downloaded into the disk cache, not decoded or scaled, so the
+ * preload is limited by the network; decoding happens when a thumbnail is shown.
+ * The job can be paused, resumed and cancelled, and reports its progress and a
+ * throughput-based estimate of the remaining time through a {@link LoadingSubject}.
+ * A cursor (the number of leading Pokemon already preloaded) is saved in the cache
+ * root, so after a restart the job continues where the previous run stopped instead
+ * of walking the whole list again. The cursor never moves past a thumbnail that
+ * failed to download (e.g. while offline), so the next run tries it again.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class PreloadJob implements Runnable {
+
+    private static final String CURSOR_FILE = "preload.cursor";
+    private static final int CURSOR_FORMAT_VERSION = 1;
+
+    // A finished or stale cursor is trusted this long; afterwards the preload runs again
+    private static final long CURSOR_MAX_AGE_MS = TimeUnit.DAYS.toMillis(7);
+
+    // Completed loads between cursor saves
+    private static final int CURSOR_SAVE_INTERVAL = 25;
+
+    // Upper bound of preload requests queued at once, so user-driven image loads
+    // always find free download slots; below it the window follows the image
+    // cache's adaptive download limit
+    private static final int MAX_WINDOW = 24;
+
+    // Completed loads needed before the throughput is trusted for an estimate
+    private static final int MIN_ETA_SAMPLES = 8;
+
+    private final List<Pokemon> pokemonList;
+    private final LoadingSubject progressSubject;
+    private final File cursorFile;
+    private final int listFingerprint;
+
+    // Serializes cursor file writes, which come from loader threads, the EDT and run()
+    private final Object writeLock = new Object();
+
+    // State below is guarded by lock
+    private final Object lock = new Object();
+    private final boolean[] cached;
+    private int cursor;
+    private int savedCursor;
+    private int completedCount;
+    private int inFlight;
+    private boolean paused;
+    private boolean cancelled;
+    private int loadedThisRun;
+    private long activeNanos;
+    private long activeSince;
+
+    /**
+     * Creates a preload job for the given display order.
+     *
+     * @param pokemonList     the Pokemon whose thumbnails to preload, first needed first
+     * @param progressSubject receives progress and remaining time updates
+     */
+    PreloadJob(List<Pokemon> pokemonList, LoadingSubject progressSubject) {
+        this.pokemonList = List.copyOf(pokemonList);
+        this.progressSubject = progressSubject;
+        this.cursorFile = new File(CacheLocation.getRoot(), CURSOR_FILE);
+        this.listFingerprint = this.pokemonList.stream().map(Pokemon::getId).toList().hashCode();
+        this.cached = new boolean[this.pokemonList.size()];
+    }
+
+    /**
+     * Runs the preload until every thumbnail is loaded or the job is cancelled.
+     * Blocks the calling thread; meant to run on a background worker.
+     */
+    @Override
+    public void run() {
+        int total = pokemonList.size();
+        int start = readCursor();
+        synchronized (lock) {
+            cursor = start;
+            savedCursor = start;
+            completedCount = start;
+            activeSince = System.nanoTime();
+        }
+        reportProgress(start, total, -1);
+
+        try {
+            for (int index = start; index < total; index++) {
+                synchronized (lock) {
+                    while (!cancelled && (paused || inFlight >= window())) {
+                        lock.wait();
+                    }
+                    if (cancelled) {
+                        break;
+                    }
+                    inFlight++;
+                }
+                int loadedIndex = index;
+                ImageCache.prefetch(pokemonList.get(index).getId(), UIConstants.Sizes.IMAGE_THUMBNAIL)
+                    .whenComplete((settled, error) -> onLoaded(loadedIndex, Boolean.TRUE.equals(settled)));
+            }
+
+            // Wait for the last loads to finish
+            synchronized (lock) {
+                while (!cancelled && inFlight > 0) {
+                    lock.wait();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            saveCursor();
+        }
+    }
+
+    /**
+     * Stops queueing new loads; loads already queued still finish.
+     */
+    void pause() {
+        synchronized (lock) {
+            if (paused || cancelled) {
+                return;
+            }
+            paused = true;
+            activeNanos += System.nanoTime() - activeSince;
+        }
+        saveCursor();
+    }
+
+    /**
+     * Continues a paused preload.
+     */
+    void resume() {
+        synchronized (lock) {
+            if (!paused) {
+                return;
+            }
+            paused = false;
+            activeSince = System.nanoTime();
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Stops the preload for good. The cursor is saved, so the next start continues from it.
+     */
+    void cancel() {
+        synchronized (lock) {
+            cancelled = true;
+            lock.notifyAll();
+        }
+        // Saved here as well, since the application may exit before run() returns
+        saveCursor();
+    }
+
+    /**
+     * @return true if the job is paused
+     */
+    boolean isPaused() {
+        synchronized (lock) {
+            return paused;
+        }
+    }
+
+    /**
+     * Records a finished load and reports progress. Successful loads (including
+     * Pokemon known to have no image) advance the cursor past the leading run of
+     * cached Pokemon; a failed load holds the cursor back for the next run.
+     */
+    private void onLoaded(int index, boolean settled) {
+        int completed;
+        long remainingSeconds;
+        boolean saveDue;
+        synchronized (lock) {
+            inFlight--;
+            cached[index] = settled;
+            completed = ++completedCount;
+            loadedThisRun++;
+            while (cursor < cached.length && cached[cursor]) {
+                cursor++;
+            }
+            saveDue = cursor - savedCursor >= CURSOR_SAVE_INTERVAL;
+            remainingSeconds = estimateRemainingSeconds();
+            lock.notifyAll();
+        }
+
+        if (saveDue) {
+            saveCursor();
+        }
+        reportProgress(completed, cached.length, remainingSeconds);
+    }
+
+    /**
+     * Estimates the remaining time from the throughput of this run, excluding
+     * paused time. Returns -1 until enough loads finished. Caller holds the lock.
+     */
+    private long estimateRemainingSeconds() {
+        if (loadedThisRun < MIN_ETA_SAMPLES) {
+            return -1;
+        }
+        long elapsed = activeNanos + (paused ? 0 : System.nanoTime() - activeSince);
+        double perSecond = loadedThisRun / (elapsed / 1_000_000_000.0);
+        return perSecond > 0 ? Math.round((cached.length - completedCount) / perSecond) : -1;
+    }
+
+    /**
+     * Returns how many loads may be queued at once: the image cache's adaptive
+     * download limit, at most MAX_WINDOW.
+     */
+    private static int window() {
+        return Math.max(1, Math.min(ImageCache.getDownloadConcurrency(), MAX_WINDOW));
+    }
+
+    /**
+     * Forwards progress to the observers on the Event Dispatch Thread.
+     */
+    private void reportProgress(int current, int total, long remainingSeconds) {
+        SwingUtilities.invokeLater(() -> {
+            progressSubject.notifyProgressUpdate(current, total);
+            progressSubject.notifyEtaUpdate(remainingSeconds);
+        });
+    }
+
+    /**
+     * Reads the saved cursor. Returns 0 if there is none, it belongs to a different
+     * list of Pokemon or it is older than CURSOR_MAX_AGE_MS.
+     */
+    private int readCursor() {
+        if (!cursorFile.isFile() || System.currentTimeMillis() - cursorFile.lastModified() > CURSOR_MAX_AGE_MS) {
+            return 0;
+        }
+        try {
+            String[] fields = Files.readString(cursorFile.toPath(), StandardCharsets.UTF_8).trim().split(" ");
+            if (fields.length != 3 || Integer.parseInt(fields[0]) != CURSOR_FORMAT_VERSION
+                    || Integer.parseInt(fields[1]) != listFingerprint) {
+                return 0;
+            }
+            int saved = Integer.parseInt(fields[2]);
+            return saved >= 0 && saved <= pokemonList.size() ? saved : 0;
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Ignoring unreadable preload cursor: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Saves the cursor if it moved, replacing the file atomically. Writes are
+     * serialized and read the cursor only once it is their turn, so an older
+     * cursor can never overwrite a newer one.
+     */
+    private void saveCursor() {
+        synchronized (writeLock) {
+            int current;
+            synchronized (lock) {
+                if (cursor == savedCursor && cursorFile.isFile()) {
+                    return;
+                }
+                current = cursor;
+            }
+            if (writeCursor(current)) {
+                synchronized (lock) {
+                    savedCursor = current;
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a cursor value to a temporary file and moves it over the cursor file.
+     *
+     * @return true if the cursor was written
+     */
+    private boolean writeCursor(int current) {
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(CacheLocation.getRoot().toPath(), CURSOR_FILE + "-", ".part");
+            Files.writeString(temporary, CURSOR_FORMAT_VERSION + " " + listFingerprint + " " + current,
+                              StandardCharsets.UTF_8);
+            try {
+                Files.move(temporary, cursorFile.toPath(),
+                           StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, cursorFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Failed to save preload cursor: " + e.getMessage());
+            return false;
+        } finally {
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException e) {
+                    // Best effort - a leftover temporary file is harmless
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package pokedex.model;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Inverted index mapping Pokemon abilities to the IDs of Pokemon that can have them.
+ * Holders are kept as bitmaps split into normal and hidden abilities, so questions
+ * like "which Pokemon can have Levitate" are answered with a bitmap lookup instead
+ * of fetching every Pokemon's details.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+public class AbilityIndex {
+
+    private final NavigableMap<String, AbilityHolders> abilities = new TreeMap<>();
+
+    /**
+     * Records that a Pokemon can have the given ability.
+     *
+     * @param abilityName the raw ability name from the API (e.g. "swift-swim")
+     * @param pokemonId   the Pokemon identifier
+     * @param hidden      true if this is the Pokemon's hidden ability
+     * @throws IllegalArgumentException if the ability name is empty or the ID is not positive
+     */
+    public synchronized void addHolder(String abilityName, int pokemonId, boolean hidden) {
+        if (pokemonId <= 0) {
+            throw new IllegalArgumentException("pokemonId must be positive");
+        }
+
+        String key = normalizeAbilityName(abilityName);
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("abilityName cannot be null or empty");
+        }
+
+        AbilityHolders holders = abilities.computeIfAbsent(key, k -> new AbilityHolders());
+        (hidden ? holders.hidden : holders.normal).set(pokemonId);
+    }
+
+    /**
+     * Returns the IDs of Pokemon having the exact ability as a normal ability.
+     *
+     * @param abilityName the ability name in any of the supported spellings
+     * @return bitmap of Pokemon IDs (a copy, safe to modify)
+     */
+    public synchronized BitSet getNormalHolders(String abilityName) {
+        AbilityHolders holders = abilities.get(normalizeAbilityName(abilityName));
+        return holders != null ? (BitSet) holders.normal.clone() : new BitSet();
+    }
+
+    /**
+     * Returns the IDs of Pokemon having the exact ability as a hidden ability.
+     *
+     * @param abilityName the ability name in any of the supported spellings
+     * @return bitmap of Pokemon IDs (a copy, safe to modify)
+     */
+    public synchronized BitSet getHiddenHolders(String abilityName) {
+        AbilityHolders holders = abilities.get(normalizeAbilityName(abilityName));
+        return holders != null ? (BitSet) holders.hidden.clone() : new BitSet();
+    }
+
+    /**
+     * Finds all Pokemon having any ability whose name starts with the given prefix,
+     * either as a normal or a hidden ability. Used for incremental search.
+     *
+     * @param abilityPrefix the (possibly partial) ability name
+     * @return bitmap of matching Pokemon IDs, empty if the prefix is empty
+     */
+    public synchronized BitSet findHolders(String abilityPrefix) {
+        BitSet result = new BitSet();
+        String prefix = normalizeAbilityName(abilityPrefix);
+        if (prefix.isEmpty()) {
+            return result;
+        }
+
+        for (AbilityHolders holders : prefixMatches(prefix).values()) {
+            result.or(holders.normal);
+            result.or(holders.hidden);
+        }
+        return result;
+    }
+
+    /**
+     * @return number of distinct abilities in the index
+     */
+    public synchronized int size() {
+        return abilities.size();
+    }
+
+    /**
+     * @return true if no abilities have been indexed
+     */
+    public synchronized boolean isEmpty() {
+        return abilities.isEmpty();
+    }
+
+    /**
+     * Returns all index entries whose key starts with the given normalized prefix.
+     */
+    private Map<String, AbilityHolders> prefixMatches(String prefix) {
+        // Every key with this prefix sorts before prefix + the highest char value
+        return abilities.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Normalizes ability names so that "swift-swim", "Swift Swim" and "swiftswim"
+     * all refer to the same index entry.
+     */
+    private static String normalizeAbilityName(String name) {
+        if (name == null) {
+            return "";
+        }
+        return name.trim().toLowerCase().replace("-", "").replace(" ", "");
+    }
+
+    /**
+     * Holder bitmaps for a single ability.
+     */
+    private static class AbilityHolders {
+        final BitSet normal = new BitSet();
+        final BitSet hidden = new BitSet();
+    }
+}
@@ -3,8 +3,10 @@ package pokedex.service;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import pokedex.model.AbilityIndex;
 import pokedex.model.Pokemon;
 import pokedex.model.PokemonDetails;
+import pokedex.util.CacheLocation;
 import pokedex.util.FormatterUtil;
 
 import java.net.URL;
@@ -13,11 +15,16 @@ import java.net.SocketTimeoutException;
 import java.net.ConnectException;
 import java.net.UnknownHostException;
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.InputStreamReader;
 import java.io.InputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Service class for interacting with the PokeAPI REST service.
@@ -35,6 +42,11 @@ public class PokeApiService {
     private static final int CONNECTION_TIMEOUT = 10_000; // 10 seconds
     private static final int READ_TIMEOUT = 15_000; // 15 seconds
     private static final String USER_AGENT = "Pokedex-App/1.0";
+    private static final String ABILITY_LIST_ENDPOINT = "/ability?limit=100000&offset=0";
+    private static final int ABILITY_FETCH_THREADS = 8;
+    private static final long RESPONSE_MAX_AGE_MS = 7L * 24 * 60 * 60 * 1000; // 7 days
+    private static final File RESPONSE_STORE_DIR = CacheLocation.resolve("api");
+    private static final ResponseStore RESPONSE_STORE = openResponseStore();
 
     /**
      * Fetches all available Pokemon from the PokeAPI.
@@ -85,6 +97,84 @@ public class PokeApiService {
         }
     }
 
+    /**
+     * Builds the ability inverted index from the PokeAPI {@code /ability} resources.
+     * All ability resources are fetched in parallel; abilities that fail to load
+     * are skipped so a single bad entry does not discard the whole index.
+     * 
+     * @return index mapping abilities to the Pokemon that can have them
+     * @throws Exception if the ability list cannot be fetched or no ability could be indexed
+     */
+    public AbilityIndex fetchAbilityIndex() throws Exception {
+        List<String> abilityUrls;
+        try {
+            abilityUrls = parseResourceUrls(fetchData(BASE_URL + ABILITY_LIST_ENDPOINT));
+        } catch (JSONException e) {
+            throw new Exception("Nieprawidłowy format listy zdolności otrzymanej z serwera PokeAPI", e);
+        } catch (IOException e) {
+            throw new Exception("Błąd podczas pobierania listy zdolności z PokeAPI: " + e.getMessage(), e);
+        }
+
+        AbilityIndex index = new AbilityIndex();
+        ExecutorService pool = Executors.newFixedThreadPool(ABILITY_FETCH_THREADS);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (String abilityUrl : abilityUrls) {
+                tasks.add(pool.submit(() -> indexAbility(abilityUrl, index)));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException e) {
+            throw new Exception("Błąd podczas budowania indeksu zdolności", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        if (index.isEmpty()) {
+            throw new Exception("Nie otrzymano żadnych danych o zdolnościach z API");
+        }
+        return index;
+    }
+
+    /**
+     * Fetches a single ability resource and adds its holders to the index.
+     */
+    private void indexAbility(String abilityUrl, AbilityIndex index) {
+        try {
+            JSONObject json = new JSONObject(fetchData(abilityUrl));
+            String abilityName = json.getString("name");
+            JSONArray holders = json.getJSONArray("pokemon");
+
+            for (int i = 0; i < holders.length(); i++) {
+                try {
+                    JSONObject holderJson = holders.getJSONObject(i);
+                    String pokemonUrl = holderJson.getJSONObject("pokemon").getString("url");
+                    int pokemonId = Integer.parseInt(extractIdFromUrl(pokemonUrl));
+                    index.addHolder(abilityName, pokemonId, holderJson.getBoolean("is_hidden"));
+                } catch (JSONException | IllegalArgumentException e) {
+                    System.err.println("Skipping malformed ability holder in " + abilityName + ": " + e.getMessage());
+                }
+            }
+        } catch (JSONException | IOException e) {
+            System.err.println("Skipping ability " + abilityUrl + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses a named resource list response into the list of resource URLs.
+     */
+    private List<String> parseResourceUrls(String jsonData) throws JSONException {
+        JSONArray results = new JSONObject(jsonData).getJSONArray("results");
+        List<String> urls = new ArrayList<>();
+        
+        for (int i = 0; i < results.length(); i++) {
+            urls.add(results.getJSONObject(i).getString("url"));
+        }
+        
+        return urls;
+    }
+
     /**
      * Parses the JSON response containing the Pokemon list.
      */
@@ -202,12 +292,37 @@ public class PokeApiService {
     }
 
     /**
-     * Fetches data from the specified URL with proper timeout and error handling.
-     * Now uses try-with-resources for automatic resource management.
+     * Fetches data for the specified URL, serving it from the local response store
+     * when a fresh copy exists. Stale copies are used as a fallback when the network fails.
      */
     private String fetchData(String urlString) throws IOException {
         validateUrl(urlString);
         
+        ResponseStore.StoredResponse stored = RESPONSE_STORE != null ? RESPONSE_STORE.get(urlString) : null;
+        if (stored != null && stored.isFresh(RESPONSE_MAX_AGE_MS)) {
+            return stored.body;
+        }
+        
+        try {
+            String response = fetchFromNetwork(urlString);
+            if (RESPONSE_STORE != null) {
+                RESPONSE_STORE.put(urlString, response);
+            }
+            return response;
+        } catch (IOException e) {
+            if (stored != null) {
+                System.err.println("Using stale cached response for " + urlString + ": " + e.getMessage());
+                return stored.body;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Fetches data from the specified URL with proper timeout and error handling.
+     * Now uses try-with-resources for automatic resource management.
+     */
+    private String fetchFromNetwork(String urlString) throws IOException {
         URL url = new URL(urlString);
         URLConnection connection = createConnection(url);
         
@@ -259,6 +374,29 @@ public class PokeApiService {
         return url.replaceAll(".*/(\\d+)/?$", "$1");
     }
 
+    /**
+     * Flushes and closes the shared response store. Should be called when the
+     * application is closing, after the last request.
+     */
+    public static void shutdown() {
+        if (RESPONSE_STORE != null) {
+            RESPONSE_STORE.close();
+        }
+    }
+
+    /**
+     * Opens the shared response store, or returns null so requests go straight
+     * to the network if the store cannot be opened.
+     */
+    private static ResponseStore openResponseStore() {
+        try {
+            return new ResponseStore(RESPONSE_STORE_DIR);
+        } catch (IOException e) {
+            System.err.println("Response cache disabled: " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Validates that a URL string is not null or empty.
      */
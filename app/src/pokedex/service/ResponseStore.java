@@ -0,0 +1,510 @@
+package pokedex.service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable, log-structured cache for raw API responses.
+ * Responses are appended to segment files and located through an in-memory
+ * hash index from URL to file offset, giving O(1) lookups and purely sequential
+ * writes. Every record carries a checksum, so a torn write after a crash is
+ * detected and truncated on the next start. Superseded records are reclaimed
+ * by a background compaction that copies live records out of mostly-dead segments;
+ * the copies are forced to disk before the old segment is deleted, and so is a
+ * segment when it is sealed.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class ResponseStore {
+
+    private static final int RECORD_MAGIC = 0x504B5253; // "PKRS"
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4; // magic, crc, timestamp, key length, value length
+    private static final long MAX_SEGMENT_SIZE = 4L * 1024 * 1024;
+    private static final long MIN_COMPACTION_BYTES = 1024 * 1024;
+    private static final double COMPACTION_DEAD_RATIO = 0.5;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final File directory;
+    private final Map<String, RecordLocation> index = new ConcurrentHashMap<>();
+    private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+    private final ExecutorService compactionExecutor;
+    private final AtomicBoolean compactionScheduled = new AtomicBoolean(false);
+    private Segment activeSegment;
+
+    /**
+     * A cached response together with the time it was stored.
+     */
+    static final class StoredResponse {
+        final String body;
+        final long storedAtMillis;
+
+        StoredResponse(String body, long storedAtMillis) {
+            this.body = body;
+            this.storedAtMillis = storedAtMillis;
+        }
+
+        /**
+         * @param maxAgeMillis the maximum acceptable age
+         * @return true if the response is younger than the given age
+         */
+        boolean isFresh(long maxAgeMillis) {
+            return System.currentTimeMillis() - storedAtMillis < maxAgeMillis;
+        }
+    }
+
+    /**
+     * Opens (or creates) a store in the given directory, recovering the index
+     * from existing segments.
+     *
+     * @param directory the directory holding the segment files
+     * @throws IOException if the directory or segments cannot be opened
+     */
+    ResponseStore(File directory) throws IOException {
+        this.directory = directory;
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create response store directory: " + directory.getPath());
+        }
+
+        this.compactionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "response-store-compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        recoverSegments();
+    }
+
+    /**
+     * Looks up the latest stored response for a URL.
+     *
+     * @param url the request URL used as key
+     * @return the stored response, or null if absent or unreadable
+     */
+    StoredResponse get(String url) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            RecordLocation location = index.get(url);
+            if (location == null) {
+                return null;
+            }
+
+            try {
+                Record record = location.segment.read(location.offset, location.length);
+                if (record != null && record.key.equals(url)) {
+                    return new StoredResponse(record.value, record.timestamp);
+                }
+                // Checksum failure - forget the entry so it is fetched again
+                discard(url, location);
+                return null;
+            } catch (IOException e) {
+                // Segment may have been compacted away concurrently; retry with fresh location
+                if (index.get(url) == location) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Appends a response for a URL, superseding any previous record.
+     *
+     * @param url  the request URL used as key
+     * @param body the response body
+     */
+    void put(String url, String body) {
+        try {
+            append(url, body, System.currentTimeMillis());
+            scheduleCompactionIfNeeded();
+        } catch (IOException e) {
+            System.err.println("Failed to store response for " + url + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Forces the active segment to disk and closes all segment files.
+     * The store must not be used afterwards.
+     */
+    synchronized void close() {
+        compactionExecutor.shutdownNow();
+        try {
+            activeSegment.force();
+        } catch (IOException e) {
+            System.err.println("Failed to flush " + activeSegment.file.getName() + ": " + e.getMessage());
+        }
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Appends a record to the active segment and updates the index.
+     */
+    private synchronized void append(String key, String value, long timestamp) throws IOException {
+        if (activeSegment.size >= MAX_SEGMENT_SIZE) {
+            // Seal the full segment: its records must be durable before compaction relies on them
+            activeSegment.force();
+            activeSegment = openSegment(activeSegment.id + 1);
+        }
+
+        ByteBuffer buffer = encodeRecord(key, value, timestamp);
+        int length = buffer.remaining();
+        long offset = activeSegment.append(buffer);
+
+        RecordLocation location = new RecordLocation(activeSegment, offset, length);
+        RecordLocation previous = index.put(key, location);
+        activeSegment.liveBytes += length;
+        if (previous != null) {
+            previous.segment.liveBytes -= previous.length;
+        }
+    }
+
+    /**
+     * Removes an unreadable record from the index and stops counting it as live,
+     * so its segment can still reach the compaction threshold.
+     */
+    private synchronized void discard(String key, RecordLocation location) {
+        if (index.remove(key, location)) {
+            location.segment.liveBytes -= location.length;
+        }
+    }
+
+    /**
+     * Loads all existing segments, rebuilding the index and truncating torn tails.
+     */
+    private void recoverSegments() throws IOException {
+        File[] files = directory.listFiles((dir, name) ->
+            name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        int[] ids = files == null ? new int[0] : Arrays.stream(files)
+            .mapToInt(file -> parseSegmentId(file.getName()))
+            .filter(id -> id >= 0)
+            .sorted()
+            .toArray();
+
+        for (int id : ids) {
+            Segment segment = openSegment(id);
+            scanSegment(segment);
+            activeSegment = segment;
+        }
+
+        if (activeSegment == null) {
+            activeSegment = openSegment(0);
+        }
+    }
+
+    /**
+     * Scans one segment, indexing valid records and truncating at the first corrupt one.
+     */
+    private void scanSegment(Segment segment) throws IOException {
+        long offset = 0;
+        while (offset + HEADER_SIZE <= segment.size) {
+            int length = segment.recordLengthAt(offset);
+            Record record = length > 0 ? segment.read(offset, length) : null;
+            if (record == null) {
+                break;
+            }
+
+            RecordLocation previous = index.put(record.key, new RecordLocation(segment, offset, length));
+            segment.liveBytes += length;
+            if (previous != null) {
+                previous.segment.liveBytes -= previous.length;
+            }
+            offset += length;
+        }
+
+        if (offset < segment.size) {
+            System.err.println("Truncating corrupt tail of " + segment.file.getName() + " at offset " + offset);
+            segment.truncate(offset);
+        }
+    }
+
+    /**
+     * Schedules a background compaction when enough superseded data has accumulated.
+     */
+    private void scheduleCompactionIfNeeded() {
+        Segment active;
+        synchronized (this) {
+            active = activeSegment;
+        }
+
+        // Only sealed segments are compacted, so dead records in the active one do not count
+        long total = 0;
+        long live = 0;
+        for (Segment segment : segments.values()) {
+            if (segment != active) {
+                total += segment.size;
+                live += segment.liveBytes;
+            }
+        }
+
+        long dead = total - live;
+        if (dead >= MIN_COMPACTION_BYTES && dead >= total * COMPACTION_DEAD_RATIO
+                && compactionScheduled.compareAndSet(false, true)) {
+            compactionExecutor.execute(() -> {
+                try {
+                    compact();
+                } finally {
+                    compactionScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    /**
+     * Rewrites the live records of mostly-dead sealed segments and deletes those segments.
+     */
+    private void compact() {
+        List<Segment> candidates = new ArrayList<>();
+        synchronized (this) {
+            for (Segment segment : segments.values()) {
+                if (segment != activeSegment && segment.liveBytes <= segment.size * COMPACTION_DEAD_RATIO) {
+                    candidates.add(segment);
+                }
+            }
+        }
+
+        for (Segment segment : candidates) {
+            try {
+                compactSegment(segment);
+            } catch (IOException e) {
+                System.err.println("Failed to compact " + segment.file.getName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Copies the live records of a segment to the active segment, then deletes it.
+     */
+    private void compactSegment(Segment segment) throws IOException {
+        for (Map.Entry<String, RecordLocation> entry : index.entrySet()) {
+            RecordLocation location = entry.getValue();
+            if (location.segment != segment) {
+                continue;
+            }
+
+            Record record = segment.read(location.offset, location.length);
+            synchronized (this) {
+                // Only move the record if it has not been superseded in the meantime
+                if (record == null) {
+                    // Checksum failure - drop it rather than point at the deleted segment
+                    discard(entry.getKey(), location);
+                } else if (index.get(entry.getKey()) == location) {
+                    append(record.key, record.value, record.timestamp);
+                }
+            }
+        }
+
+        synchronized (this) {
+            // The copied records must be on disk before their only other copy is deleted
+            activeSegment.force();
+            segments.remove(segment.id);
+            segment.close();
+            if (!segment.file.delete()) {
+                System.err.println("Could not delete compacted segment: " + segment.file.getName());
+            }
+        }
+    }
+
+    /**
+     * Opens the segment file with the given id, creating it if needed.
+     */
+    private Segment openSegment(int id) throws IOException {
+        File file = new File(directory, String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        Segment segment = new Segment(id, file);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    /**
+     * Serializes a record, computing its checksum over everything after the checksum field.
+     */
+    private static ByteBuffer encodeRecord(String key, String value, long timestamp) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + keyBytes.length + valueBytes.length);
+        buffer.putInt(RECORD_MAGIC);
+        buffer.putInt(0); // checksum placeholder
+        buffer.putLong(timestamp);
+        buffer.putInt(keyBytes.length);
+        buffer.putInt(valueBytes.length);
+        buffer.put(keyBytes);
+        buffer.put(valueBytes);
+
+        buffer.putInt(4, checksum(buffer.array(), 8, buffer.capacity() - 8));
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Computes the CRC32C checksum of a byte range.
+     */
+    private static int checksum(byte[] data, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(data, offset, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Extracts the numeric id from a segment file name, or -1 if malformed.
+     */
+    private static int parseSegmentId(String fileName) {
+        try {
+            return Integer.parseInt(fileName.substring(
+                SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Position of a record inside a segment.
+     */
+    private static final class RecordLocation {
+        final Segment segment;
+        final long offset;
+        final int length;
+
+        RecordLocation(Segment segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * A decoded, checksum-verified record.
+     */
+    private static final class Record {
+        final String key;
+        final String value;
+        final long timestamp;
+
+        Record(String key, String value, long timestamp) {
+            this.key = key;
+            this.value = value;
+            this.timestamp = timestamp;
+        }
+    }
+
+    /**
+     * A single append-only segment file.
+     */
+    private static final class Segment {
+        final int id;
+        final File file;
+        final FileChannel channel;
+        volatile long size;
+        volatile long liveBytes;
+
+        Segment(int id, File file) throws IOException {
+            this.id = id;
+            this.file = file;
+            this.channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.size = channel.size();
+        }
+
+        /**
+         * Appends the buffer at the end of the segment and returns its offset.
+         */
+        long append(ByteBuffer buffer) throws IOException {
+            long offset = size;
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            size = position;
+            return offset;
+        }
+
+        /**
+         * Returns the total record length stored at the offset, or -1 if the header is invalid.
+         */
+        int recordLengthAt(long offset) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (!readFully(header, offset) || header.getInt(0) != RECORD_MAGIC) {
+                return -1;
+            }
+
+            long length = (long) HEADER_SIZE + header.getInt(16) + header.getInt(20);
+            boolean valid = header.getInt(16) >= 0 && header.getInt(20) >= 0 && offset + length <= size;
+            return valid && length <= Integer.MAX_VALUE ? (int) length : -1;
+        }
+
+        /**
+         * Reads and verifies a record, returning null on checksum or format mismatch.
+         */
+        Record read(long offset, int length) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(length);
+            if (!readFully(buffer, offset) || buffer.getInt(0) != RECORD_MAGIC) {
+                return null;
+            }
+
+            byte[] data = buffer.array();
+            if (buffer.getInt(4) != checksum(data, 8, length - 8)) {
+                return null;
+            }
+
+            long timestamp = buffer.getLong(8);
+            int keyLength = buffer.getInt(16);
+            int valueLength = buffer.getInt(20);
+            if (HEADER_SIZE + keyLength + valueLength != length) {
+                return null;
+            }
+
+            String key = new String(data, HEADER_SIZE, keyLength, StandardCharsets.UTF_8);
+            String value = new String(data, HEADER_SIZE + keyLength, valueLength, StandardCharsets.UTF_8);
+            return new Record(key, value, timestamp);
+        }
+
+        /**
+         * Forces the segment's data to the storage device.
+         */
+        void force() throws IOException {
+            channel.force(false);
+        }
+
+        /**
+         * Cuts the segment at the given offset, discarding a torn tail.
+         */
+        void truncate(long offset) throws IOException {
+            channel.truncate(offset);
+            size = offset;
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close segment " + file.getName() + ": " + e.getMessage());
+            }
+        }
+
+        private boolean readFully(ByteBuffer buffer, long offset) throws IOException {
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    return false;
+                }
+                position += read;
+            }
+            return true;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package pokedex.ui;
 import pokedex.model.PokemonDetails;
 import pokedex.util.ErrorHandler;
 import pokedex.util.ImageCache;
+import pokedex.util.ImagePriority;
 import pokedex.util.UIConstants;
 
 import javax.swing.*;
@@ -212,7 +213,7 @@ public class DetailsView extends JPanel {
         String pokemonId = String.valueOf(pokemonDetails.getId());
         int targetSize = UIConstants.Sizes.IMAGE_DETAILS.width;
 
-        ImageCache.loadScaledAsync(pokemonId, targetSize)
+        ImageCache.loadScaledAsync(pokemonId, targetSize, ImagePriority.DETAILS)
             .thenAccept(icon -> SwingUtilities.invokeLater(() -> {
                 if (icon != null) {
                     imageLabel.setIcon(icon);
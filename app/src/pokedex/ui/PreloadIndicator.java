@@ -0,0 +1,185 @@
+package pokedex.ui;
+
+import pokedex.util.FormatterUtil;
+import pokedex.util.LoadingObserver;
+import pokedex.util.UIConstants;
+
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * Compact, non-modal progress indicator for background image preloading.
+ * Shown in the search view footer while the preload runs and hidden once it
+ * completes, so the user can browse while images are still being downloaded.
+ * Shows the estimated remaining time and offers pause/resume and cancel buttons.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+public class PreloadIndicator extends JPanel implements LoadingObserver {
+
+    private final JLabel statusLabel;
+    private final JProgressBar progressBar;
+    private final JButton pauseButton;
+    private final JButton cancelButton;
+    private Runnable pauseAction;
+    private Runnable resumeAction;
+    private Runnable cancelAction;
+    private boolean paused;
+    private String progressText = "";
+    private String etaText = "";
+
+    /**
+     * Creates a hidden indicator; it becomes visible with the first status or progress update.
+     */
+    public PreloadIndicator() {
+        super(new FlowLayout(FlowLayout.RIGHT, 5, 5));
+        setOpaque(false);
+        setVisible(false);
+
+        this.statusLabel = createStatusLabel();
+        this.progressBar = createProgressBar();
+        this.pauseButton = createButton(UIConstants.Strings.PRELOAD_PAUSE);
+        this.cancelButton = createButton(UIConstants.Strings.PRELOAD_CANCEL);
+        pauseButton.addActionListener(e -> togglePause());
+        cancelButton.addActionListener(e -> runIfSet(cancelAction));
+        add(statusLabel);
+        add(progressBar);
+        add(pauseButton);
+        add(cancelButton);
+    }
+
+    /**
+     * Connects the pause/resume and cancel buttons to the preload. Buttons without
+     * an action are hidden.
+     *
+     * @param pauseAction  pauses the preload
+     * @param resumeAction resumes a paused preload
+     * @param cancelAction cancels the preload
+     */
+    public void setControls(Runnable pauseAction, Runnable resumeAction, Runnable cancelAction) {
+        SwingUtilities.invokeLater(() -> {
+            this.pauseAction = pauseAction;
+            this.resumeAction = resumeAction;
+            this.cancelAction = cancelAction;
+            pauseButton.setVisible(pauseAction != null && resumeAction != null);
+            cancelButton.setVisible(cancelAction != null);
+        });
+    }
+
+    // LoadingObserver implementation
+    @Override
+    public void onProgressUpdate(int current, int total) {
+        SwingUtilities.invokeLater(() -> {
+            progressBar.setIndeterminate(false);
+            progressBar.setMaximum(Math.max(total, 1));
+            progressBar.setValue(Math.max(0, Math.min(current, total)));
+            progressText = current + "/" + total;
+            updateProgressString();
+            setVisible(true);
+        });
+    }
+
+    @Override
+    public void onStatusChange(String statusText) {
+        if (statusText != null) {
+            SwingUtilities.invokeLater(() -> {
+                statusLabel.setText(statusText);
+                statusLabel.setForeground(UIConstants.Colors.TEXT_PRIMARY);
+                setVisible(true);
+            });
+        }
+    }
+
+    @Override
+    public void onLoadingComplete() {
+        SwingUtilities.invokeLater(() -> setVisible(false));
+    }
+
+    @Override
+    public void onLoadingError(String errorMessage) {
+        SwingUtilities.invokeLater(() -> {
+            statusLabel.setText(errorMessage != null ? errorMessage : UIConstants.Strings.ERROR_LOADING);
+            statusLabel.setForeground(UIConstants.Colors.ERROR);
+            progressBar.setVisible(false);
+            pauseButton.setVisible(false);
+            setVisible(true);
+        });
+    }
+
+    @Override
+    public void onEtaUpdate(long remainingSeconds) {
+        SwingUtilities.invokeLater(() -> {
+            etaText = remainingSeconds >= 0 ? FormatterUtil.formatDuration(remainingSeconds) : "";
+            updateProgressString();
+        });
+    }
+
+    @Override
+    public void onProgressBarVisibilityChange(boolean visible) {
+        SwingUtilities.invokeLater(() -> progressBar.setVisible(visible));
+    }
+
+    /**
+     * Pauses or resumes the preload and updates the button and status text.
+     */
+    private void togglePause() {
+        Runnable action = paused ? resumeAction : pauseAction;
+        if (action == null) {
+            return;
+        }
+        action.run();
+        paused = !paused;
+        pauseButton.setText(paused ? UIConstants.Strings.PRELOAD_RESUME : UIConstants.Strings.PRELOAD_PAUSE);
+        statusLabel.setText(paused ? UIConstants.Strings.PRELOAD_PAUSED : UIConstants.Strings.PRELOAD_STATUS);
+        updateProgressString();
+    }
+
+    /**
+     * Shows the progress count and, while running, the estimated remaining time.
+     */
+    private void updateProgressString() {
+        boolean showEta = !paused && !etaText.isEmpty();
+        progressBar.setString(showEta ? progressText + " · " + etaText : progressText);
+        progressBar.setToolTipText(showEta ? UIConstants.Strings.ETA_PREFIX + etaText : null);
+    }
+
+    private static void runIfSet(Runnable action) {
+        if (action != null) {
+            action.run();
+        }
+    }
+
+    /**
+     * Creates and configures the status label.
+     */
+    private JLabel createStatusLabel() {
+        JLabel label = new JLabel(UIConstants.Strings.PRELOAD_STATUS);
+        label.setForeground(UIConstants.Colors.TEXT_PRIMARY);
+        return label;
+    }
+
+    /**
+     * Creates and configures the progress bar.
+     */
+    private JProgressBar createProgressBar() {
+        JProgressBar bar = new JProgressBar();
+        bar.setPreferredSize(UIConstants.Sizes.PRELOAD_PROGRESS_BAR);
+        bar.setStringPainted(true);
+        bar.setIndeterminate(true);
+        return bar;
+    }
+
+    /**
+     * Creates a small footer button; hidden until its action is set.
+     */
+    private JButton createButton(String text) {
+        JButton button = new JButton(text);
+        button.setFocusPainted(false);
+        button.setBackground(UIConstants.Colors.BUTTON_BACKGROUND);
+        button.setForeground(UIConstants.Colors.BUTTON_TEXT);
+        button.setBorder(BorderFactory.createEmptyBorder(2, 8, 2, 8));
+        button.setVisible(false);
+        return button;
+    }
+}
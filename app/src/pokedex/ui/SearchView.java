@@ -1,8 +1,10 @@
 package pokedex.ui;
 
+import pokedex.model.AbilityIndex;
 import pokedex.model.Pokemon;
 import pokedex.util.ErrorHandler;
 import pokedex.util.ImageCache;
+import pokedex.util.ImagePriority;
 import pokedex.util.UIConstants;
 
 import javax.imageio.ImageIO;
@@ -27,12 +29,13 @@ public class SearchView extends JPanel {
     // Performance configuration
     private static final int INITIAL_BATCH_SIZE = 50;
     private static final int LAZY_LOAD_DELAY_MS = 1;
-
+    
     // Data and state
     private final List<Pokemon> allPokemon;
     private final Consumer<Pokemon> selectionHandler;
     private List<Pokemon> filteredPokemon;
     private String lastSearchTerm = "";
+    private AbilityIndex abilityIndex;
 
     // UI components
     private final JTextField searchField;
@@ -40,6 +43,8 @@ public class SearchView extends JPanel {
     private final JScrollPane scrollPane;
     private final JPanel gridContainer;
     private final Map<Pokemon, JPanel> pokemonPanelCache;
+    private final PreloadIndicator preloadIndicator;
+    private SwingWorker<Void, JPanel> remainingPokemonLoader;
 
     /**
      * Creates a new SearchView with the specified Pokemon data and selection handler.
@@ -55,6 +60,7 @@ public class SearchView extends JPanel {
         this.searchField = new JTextField(30);
         this.pokemonGrid = new JPanel();
         this.pokemonPanelCache = new HashMap<>();
+        this.preloadIndicator = new PreloadIndicator();
         
         try {
             this.gridContainer = createGridContainer();
@@ -66,6 +72,40 @@ public class SearchView extends JPanel {
         }
     }
 
+    /**
+     * Sets the ability index used for ability searches (e.g. "@levitate").
+     * The index is built in the background, so the current search is re-run
+     * once it becomes available. Must be called on the Event Dispatch Thread.
+     * 
+     * @param index the ability inverted index
+     */
+    public void setAbilityIndex(AbilityIndex index) {
+        this.abilityIndex = index;
+        
+        String currentTerm = lastSearchTerm;
+        lastSearchTerm = "";
+        performSearch(currentTerm);
+    }
+
+    /**
+     * Returns all Pokemon in the order the grid displays them (alphabetically),
+     * e.g. so background work can follow what the user is most likely to see.
+     * 
+     * @return unmodifiable list of all Pokemon in display order
+     */
+    public List<Pokemon> getDisplayOrder() {
+        return Collections.unmodifiableList(allPokemon);
+    }
+
+    /**
+     * Returns the footer indicator showing the progress of background image preloading.
+     * 
+     * @return the preload progress observer
+     */
+    public PreloadIndicator getPreloadIndicator() {
+        return preloadIndicator;
+    }
+
     /**
      * Initializes the main view layout and components.
      */
@@ -262,16 +302,22 @@ public class SearchView extends JPanel {
     }
 
     /**
-     * Creates and configures the footer panel.
+     * Creates and configures the footer panel with the author information
+     * and the background preload indicator.
      */
     private JPanel createFooterPanel() {
-        JPanel panel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 5));
+        JPanel panel = new JPanel(new BorderLayout());
         panel.setOpaque(false);
         setupFocusHandling(panel);
 
+        JPanel authorPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 5));
+        authorPanel.setOpaque(false);
         JLabel authorLabel = new JLabel(UIConstants.Strings.AUTHOR);
         authorLabel.setForeground(UIConstants.Colors.TEXT_PRIMARY);
-        panel.add(authorLabel);
+        authorPanel.add(authorLabel);
+
+        panel.add(authorPanel, BorderLayout.WEST);
+        panel.add(preloadIndicator, BorderLayout.EAST);
 
         return panel;
     }
@@ -281,9 +327,35 @@ public class SearchView extends JPanel {
      */
     private void setupEventHandlers() {
         setupResizeHandler();
+        setupViewportPriorityHandler();
         setupGlobalFocusHandling();
     }
 
+    /**
+     * Re-prioritizes pending image loads whenever the visible part of the grid changes.
+     */
+    private void setupViewportPriorityHandler() {
+        scrollPane.getViewport().addChangeListener(e -> updateImagePriorities());
+    }
+
+    /**
+     * Assigns image load priorities by position: cards in view load first, cards
+     * within one screen of the view next, and all others as background work.
+     */
+    private void updateImagePriorities() {
+        Rectangle visibleArea = pokemonGrid.getVisibleRect();
+        Rectangle nearArea = new Rectangle(visibleArea.x, visibleArea.y - visibleArea.height,
+                                           visibleArea.width, visibleArea.height * 3);
+        
+        for (Component card : pokemonGrid.getComponents()) {
+            Rectangle bounds = card.getBounds();
+            ImagePriority priority = visibleArea.intersects(bounds) ? ImagePriority.VISIBLE
+                                   : nearArea.intersects(bounds) ? ImagePriority.NEAR_VIEWPORT
+                                   : ImagePriority.PRELOAD;
+            ImageCache.setBindingPriority((JComponent) card, priority);
+        }
+    }
+
     /**
      * Sets up the window resize handler for dynamic column adjustment.
      */
@@ -367,11 +439,39 @@ public class SearchView extends JPanel {
     private List<Pokemon> filterPokemon(String searchTerm) {
         String normalizedTerm = normalizeSearchTerm(searchTerm);
         
+        if (normalizedTerm.startsWith(UIConstants.Strings.ABILITY_SEARCH_PREFIX)) {
+            return filterPokemonByAbility(
+                normalizedTerm.substring(UIConstants.Strings.ABILITY_SEARCH_PREFIX.length()));
+        }
+        
         return allPokemon.stream()
             .filter(pokemon -> matchesPokemon(pokemon, normalizedTerm))
             .collect(Collectors.toList());
     }
 
+    /**
+     * Filters Pokemon that can have an ability starting with the given name.
+     * Returns no results until the ability index has been loaded.
+     */
+    private List<Pokemon> filterPokemonByAbility(String abilityPrefix) {
+        if (abilityIndex == null || abilityPrefix.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        BitSet holders = abilityIndex.findHolders(abilityPrefix);
+        return allPokemon.stream()
+            .filter(pokemon -> isAbilityHolder(pokemon, holders))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks if a Pokemon's ID is set in the ability holder bitmap.
+     */
+    private boolean isAbilityHolder(Pokemon pokemon, BitSet holders) {
+        String id = pokemon.getId();
+        return id.matches("\\d+") && holders.get(Integer.parseInt(id));
+    }
+
     /**
      * Normalizes a search term for comparison.
      */
@@ -413,9 +513,15 @@ public class SearchView extends JPanel {
     }
 
     /**
-     * Clears the Pokemon grid.
+     * Clears the Pokemon grid. Image loads of the removed cards are cancelled
+     * by their bindings, and cards of the previous search still being added
+     * in the background are abandoned.
      */
     private void clearPokemonGrid() {
+        if (remainingPokemonLoader != null) {
+            remainingPokemonLoader.cancel(false);
+            remainingPokemonLoader = null;
+        }
         pokemonGrid.removeAll();
     }
 
@@ -439,6 +545,9 @@ public class SearchView extends JPanel {
         pokemonGrid.repaint();
         gridContainer.revalidate();
         gridContainer.repaint();
+        
+        // Card positions are only known after the pending layout pass
+        SwingUtilities.invokeLater(this::updateImagePriorities);
     }
 
     /**
@@ -449,14 +558,16 @@ public class SearchView extends JPanel {
     }
 
     /**
-     * Loads remaining Pokemon asynchronously.
+     * Loads remaining Pokemon asynchronously. The worker is cancelled when the
+     * search changes, so panels of an outdated result are never added.
      */
     private void loadRemainingPokemonAsync() {
-        SwingUtilities.invokeLater(() -> new SwingWorker<Void, JPanel>() {
+        List<Pokemon> pokemonToLoad = filteredPokemon;
+        SwingWorker<Void, JPanel> loader = new SwingWorker<>() {
             @Override
             protected Void doInBackground() throws Exception {
-                for (int i = INITIAL_BATCH_SIZE; i < filteredPokemon.size(); i++) {
-                    Pokemon pokemon = filteredPokemon.get(i);
+                for (int i = INITIAL_BATCH_SIZE; i < pokemonToLoad.size() && !isCancelled(); i++) {
+                    Pokemon pokemon = pokemonToLoad.get(i);
                     JPanel panel = getOrCreatePokemonPanel(pokemon);
                     publish(panel);
                     Thread.sleep(LAZY_LOAD_DELAY_MS);
@@ -466,19 +577,26 @@ public class SearchView extends JPanel {
 
             @Override
             protected void process(List<JPanel> chunks) {
+                if (isCancelled()) {
+                    return;
+                }
                 for (JPanel panel : chunks) {
                     pokemonGrid.add(panel);
                 }
                 refreshGridDisplay();
             }
-        }.execute());
+        };
+        remainingPokemonLoader = loader;
+        loader.execute();
     }
 
     /**
      * Gets or creates a Pokemon panel from cache.
      */
     private JPanel getOrCreatePokemonPanel(Pokemon pokemon) {
-        return pokemonPanelCache.computeIfAbsent(pokemon, this::createPokemonPanel);
+        synchronized (pokemonPanelCache) {
+            return pokemonPanelCache.computeIfAbsent(pokemon, this::createPokemonPanel);
+        }
     }
 
     /**
@@ -495,6 +613,7 @@ public class SearchView extends JPanel {
         panel.add(imageButton, BorderLayout.CENTER);
         panel.add(nameLabel, BorderLayout.SOUTH);
 
+        bindPokemonImage(panel, imageButton, pokemon);
         return panel;
     }
 
@@ -507,35 +626,25 @@ public class SearchView extends JPanel {
         button.setFocusPainted(false);
         button.setCursor(Cursor.getPredefinedCursor(Cursor.HAND_CURSOR));
         button.addActionListener(e -> selectionHandler.accept(pokemon));
-
-        loadPokemonImageAsync(button, pokemon);
         return button;
     }
 
     /**
-     * Loads Pokemon image asynchronously for the button.
+     * Binds the card to its Pokemon image. The image loads only while the card is
+     * in the grid, starting as near-viewport work until the card's position is known.
      */
-    private void loadPokemonImageAsync(JButton button, Pokemon pokemon) {
-        SwingUtilities.invokeLater(() -> new SwingWorker<ImageIcon, Void>() {
-            @Override
-            protected ImageIcon doInBackground() throws Exception {
-                return ImageCache.loadScaled(pokemon.getId(), 130);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    ImageIcon icon = get();
-                    if (icon != null) {
-                        button.setIcon(icon);
-                    } else {
-                        showImageError(button);
-                    }
-                } catch (Exception e) {
+    private void bindPokemonImage(JPanel card, JButton button, Pokemon pokemon) {
+        ImageCache.bind(card, pokemon.getId(), UIConstants.Sizes.IMAGE_THUMBNAIL, ImagePriority.NEAR_VIEWPORT,
+            (icon, error) -> {
+                if (error != null) {
                     showImageLoadError(button);
+                } else if (icon != null) {
+                    button.setText(null);
+                    button.setIcon(icon);
+                } else {
+                    showImageError(button);
                 }
-            }
-        }.execute());
+            });
     }
 
     /**
@@ -0,0 +1,163 @@
+package pokedex.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to a server's responses (AIMD). Every response
+ * that arrives within twice the smoothed latency raises the limit by about one per
+ * round trip; a slower response lowers it by 10% and a failure such as a timeout or
+ * server error halves it. The limit is lowered at most once per round trip: responses
+ * to requests sent before the last cut describe the old limit and are not counted
+ * again, so one congested moment with many requests in flight costs one cut.
+ * The limit therefore settles where adding requests stops improving throughput,
+ * whether the link is fast or slow.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class AdaptiveLimiter {
+
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double SLOW_BACKOFF = 0.9;
+    private static final double FAILURE_BACKOFF = 0.5;
+    // Weight of each response in the smoothed baseline latency
+    private static final double BASELINE_SMOOTHING = 0.05;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final int minLimit;
+    private final int maxLimit;
+    private double limit;
+    private int inFlight;
+    private double baselineNanos = -1;
+    private long lastCutNanos = System.nanoTime();
+
+    /**
+     * Creates a limiter.
+     *
+     * @param initialLimit the starting limit
+     * @param minLimit     the lowest limit
+     * @param maxLimit     the highest limit
+     */
+    AdaptiveLimiter(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Require 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Waits until a request may start. Every acquire must be followed by
+     * {@link #onSuccess}, {@link #onFailure} or {@link #onCancel}.
+     *
+     * @return the start time in nanoseconds, for measuring the latency
+     * @throws InterruptedException if interrupted while waiting
+     */
+    long acquire() throws InterruptedException {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                available.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a completed request, whatever the HTTP status, and adjusts the limit by its latency.
+     *
+     * @param start   the start time returned by {@link #acquire}
+     * @param latency the request's latency in nanoseconds
+     */
+    void onSuccess(long start, long latency) {
+        lock.lock();
+        try {
+            boolean slow = baselineNanos >= 0 && latency > baselineNanos * LATENCY_TOLERANCE;
+            baselineNanos = baselineNanos < 0
+                ? latency : baselineNanos + (latency - baselineNanos) * BASELINE_SMOOTHING;
+            if (slow) {
+                cut(start, SLOW_BACKOFF);
+            } else if (inFlight >= limit / 2) {
+                // Only grow while the limit is actually used
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a request that failed because of the server or the network.
+     *
+     * @param start the start time returned by {@link #acquire}
+     */
+    void onFailure(long start) {
+        lock.lock();
+        try {
+            cut(start, FAILURE_BACKOFF);
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records a request that was abandoned by its caller, e.g. an interrupted
+     * download. Says nothing about the server, so the limit is left unchanged.
+     */
+    void onCancel() {
+        lock.lock();
+        try {
+            release();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the current limit
+     */
+    int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        lock.lock();
+        try {
+            return String.format("limit=%d, inFlight=%d, baseline=%d ms", (int) limit, inFlight,
+                baselineNanos < 0 ? 0 : TimeUnit.NANOSECONDS.toMillis((long) baselineNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Lowers the limit, unless the request was sent before the previous cut.
+     */
+    private void cut(long start, double backoff) {
+        if (start - lastCutNanos < 0) {
+            return;
+        }
+        limit = Math.max(minLimit, limit * backoff);
+        lastCutNanos = System.nanoTime();
+    }
+
+    private void release() {
+        inFlight--;
+        available.signalAll();
+    }
+}
@@ -0,0 +1,109 @@
+package pokedex.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the on-disk cache under its byte quota by deleting the least recently
+ * accessed images. Access order comes from the cache manifest, so no file
+ * access times (often disabled with {@code noatime}) are needed. Runs on a
+ * background thread; a sweep shrinks the cache to a low watermark below the
+ * quota so that eviction does not run again after every download. The quota
+ * covers only what can be evicted, the source images; the thumbnail atlases and
+ * API responses are bounded by the number of Pokemon and are left out, so they
+ * can never keep the cache over quota after every image is gone.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class CacheEvictor {
+
+    private static final double LOW_WATERMARK = 0.9;
+
+    private static final String IMAGE_SUFFIX = ".png";
+
+    private final File imageDirectory;
+    private final long quotaBytes;
+    private final CacheManifest manifest;
+    private final Function<String, File> imageFileResolver;
+    private final Set<String> protectedIds;
+
+    /**
+     * Creates an evictor for the images in the given directory.
+     *
+     * @param imageDirectory    the directory whose image files are limited
+     * @param quotaBytes        the maximum total size of the image files in bytes
+     * @param manifest          the manifest providing access order
+     * @param imageFileResolver maps a Pokemon ID to its image file
+     * @param protectedIds      IDs that must not be evicted (e.g. pending writes)
+     */
+    CacheEvictor(File imageDirectory, long quotaBytes, CacheManifest manifest, Function<String, File> imageFileResolver,
+                 Set<String> protectedIds) {
+        this.imageDirectory = imageDirectory;
+        this.quotaBytes = quotaBytes;
+        this.manifest = manifest;
+        this.imageFileResolver = imageFileResolver;
+        this.protectedIds = protectedIds;
+    }
+
+    /**
+     * Deletes least recently used images until the cache is below the low watermark,
+     * if it currently exceeds the quota. Nothing is evicted if the images cannot be measured.
+     *
+     * @return number of evicted images
+     */
+    int evictIfOverQuota() {
+        long totalBytes;
+        try {
+            totalBytes = measureImageBytes();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Skipping cache eviction, failed to measure cache size: " + e.getMessage());
+            return 0;
+        }
+        if (totalBytes <= quotaBytes) {
+            return 0;
+        }
+
+        long targetBytes = (long) (quotaBytes * LOW_WATERMARK);
+        int evicted = 0;
+        for (String pokemonId : manifest.getPresentByLeastRecentAccess()) {
+            if (totalBytes <= targetBytes) {
+                break;
+            }
+            if (protectedIds.contains(pokemonId)) {
+                continue;
+            }
+
+            File file = imageFileResolver.apply(pokemonId);
+            long size = file.length();
+            manifest.remove(pokemonId);
+            if (file.delete() || !file.exists()) {
+                totalBytes -= size;
+                evicted++;
+            }
+        }
+
+        if (totalBytes > quotaBytes) {
+            System.err.println("Image cache still exceeds its quota after eviction: "
+                + totalBytes / 1024 + " KB of " + quotaBytes / 1024 + " KB");
+        }
+        return evicted;
+    }
+
+    /**
+     * Sums the sizes of the image files in the image directory.
+     */
+    private long measureImageBytes() throws IOException {
+        try (Stream<Path> files = Files.list(imageDirectory.toPath())) {
+            return files.filter(path -> path.getFileName().toString().endsWith(IMAGE_SUFFIX))
+                        .filter(Files::isRegularFile)
+                        .mapToLong(path -> path.toFile().length())
+                        .sum();
+        }
+    }
+}
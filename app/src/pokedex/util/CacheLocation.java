@@ -0,0 +1,119 @@
+package pokedex.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves where the application keeps its on-disk caches.
+ * The root can be set with {@code -Dpokedex.cache.dir=<path>}; otherwise it follows
+ * the platform convention ({@code $XDG_CACHE_HOME/pokedex} or {@code ~/.cache/pokedex}
+ * on Unix-like systems, {@code %LOCALAPPDATA%\Pokedex\cache} on Windows), so the
+ * cache no longer depends on the JVM's working directory.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+public final class CacheLocation {
+
+    private static final String CACHE_DIR_PROPERTY = "pokedex.cache.dir";
+    private static final String CACHE_QUOTA_PROPERTY = "pokedex.cache.quota.mb";
+    private static final long DEFAULT_QUOTA_MB = 512;
+
+    // Images cached by earlier versions, relative to the working directory; only
+    // files named after a Pokemon ID are taken, since tmp/ may hold anything else
+    private static final File LEGACY_IMAGE_DIR = new File("tmp");
+    private static final Pattern LEGACY_IMAGE_NAME = Pattern.compile("\\d+\\.(png|placeholder)");
+
+    private static final File ROOT = resolveRoot();
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private CacheLocation() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * @return the root directory of all application caches
+     */
+    public static File getRoot() {
+        return ROOT;
+    }
+
+    /**
+     * Returns a named subdirectory of the cache root, creating it if needed.
+     *
+     * @param name the subdirectory name
+     * @return the subdirectory
+     */
+    public static File resolve(String name) {
+        File directory = new File(ROOT, name);
+        if (!directory.exists() && !directory.mkdirs()) {
+            System.err.println("Warning: Could not create cache directory: " + directory.getPath());
+        }
+        return directory;
+    }
+
+    /**
+     * Returns the maximum total size of the cached source images, configurable with
+     * {@code -Dpokedex.cache.quota.mb=<megabytes>}.
+     *
+     * @return the quota in bytes
+     */
+    public static long getQuotaBytes() {
+        return Math.max(1, Long.getLong(CACHE_QUOTA_PROPERTY, DEFAULT_QUOTA_MB)) * 1024 * 1024;
+    }
+
+    /**
+     * Moves the images cached by earlier versions in {@code tmp/} under the working
+     * directory into the image cache directory. Runs only while that directory is
+     * still empty, so the move happens once, before the manifest first scans it.
+     * Files that cannot be moved are left where they are.
+     *
+     * @param imageDirectory the image cache directory
+     */
+    public static void migrateLegacyImages(File imageDirectory) {
+        String[] existing = imageDirectory.list();
+        File[] legacyFiles = LEGACY_IMAGE_DIR.listFiles(
+            (dir, name) -> LEGACY_IMAGE_NAME.matcher(name).matches());
+        if (existing == null || existing.length > 0 || legacyFiles == null || legacyFiles.length == 0) {
+            return;
+        }
+
+        for (File file : legacyFiles) {
+            try {
+                Files.move(file.toPath(), new File(imageDirectory, file.getName()).toPath());
+            } catch (IOException e) {
+                System.err.println("Could not move cached image " + file.getPath() + ": " + e.getMessage());
+            }
+        }
+        // Removes tmp/ only if nothing else is left in it
+        LEGACY_IMAGE_DIR.delete();
+    }
+
+    /**
+     * Determines the cache root from the system property or the platform default.
+     */
+    private static File resolveRoot() {
+        String configured = System.getProperty(CACHE_DIR_PROPERTY);
+        if (configured != null && !configured.trim().isEmpty()) {
+            return new File(configured.trim());
+        }
+
+        if (System.getProperty("os.name", "").startsWith("Windows")) {
+            String localAppData = System.getenv("LOCALAPPDATA");
+            if (localAppData != null && !localAppData.isEmpty()) {
+                return new File(new File(localAppData, "Pokedex"), "cache");
+            }
+        }
+
+        String xdgCacheHome = System.getenv("XDG_CACHE_HOME");
+        if (xdgCacheHome != null && new File(xdgCacheHome).isAbsolute()) {
+            return new File(xdgCacheHome, "pokedex");
+        }
+
+        return new File(new File(System.getProperty("user.home"), ".cache"), "pokedex");
+    }
+}
@@ -0,0 +1,557 @@
+package pokedex.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * In-memory manifest of the image cache directory, persisted as atomic snapshots.
+ * Records for every Pokemon whether its image is present on disk, known to be
+ * missing (with a retry-after time) or being downloaded, so cache lookups need
+ * no file system probes. Each entry is packed into a single {@code long}:
+ * the top two bits hold the state and the low 48 bits a timestamp (the last
+ * access time for present images, the retry-after time for missing ones).
+ * The bits in between remember which sprite source served the image and which
+ * sources are known not to have it; they outlive eviction of the file, so a
+ * later download goes straight to the right URL.
+ * Present images also record their file size and CRC32C, so the files can be
+ * verified without decoding them, and the HTTP validators they were downloaded
+ * with, so they can be revalidated with conditional requests.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class CacheManifest {
+
+    /**
+     * Cache state of a single image.
+     */
+    enum State {
+        ABSENT, PRESENT, MISSING, IN_PROGRESS
+    }
+
+    /**
+     * HTTP validators of a cached image and when it was last checked against the server.
+     */
+    static final class Validators {
+        final String etag;
+        final long lastModified;
+        final long checkedAt;
+
+        Validators(String etag, long lastModified, long checkedAt) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.checkedAt = checkedAt;
+        }
+    }
+
+    private static final String SNAPSHOT_FILE = "manifest.bin";
+    private static final String LEGACY_PLACEHOLDER_SUFFIX = ".placeholder";
+    private static final String IMAGE_SUFFIX = ".png";
+    private static final int SNAPSHOT_MAGIC = 0x504B4D46; // "PKMF"
+    private static final int SNAPSHOT_VERSION = 3;
+    private static final int HASHES_SNAPSHOT_VERSION = 2;
+    private static final int LEGACY_SNAPSHOT_VERSION = 1;
+    private static final long SNAPSHOT_INTERVAL_SECONDS = 5;
+
+    private static final int STATE_SHIFT = 62;
+    private static final long TIMESTAMP_MASK = (1L << 48) - 1;
+
+    // Sprite source bits: 4 bits of preferred source index + 1 (0 = unknown), then a missing-source mask
+    private static final int SOURCE_SHIFT = 48;
+    private static final int MISSING_SOURCES_SHIFT = SOURCE_SHIFT + 4;
+    private static final int MAX_SOURCES = 8;
+    private static final long PREFERRED_SOURCE_MASK = 0xFL << SOURCE_SHIFT;
+    private static final long MISSING_SOURCES_MASK = ((1L << MAX_SOURCES) - 1) << MISSING_SOURCES_SHIFT;
+    private static final long SOURCE_MASK = PREFERRED_SOURCE_MASK | MISSING_SOURCES_MASK;
+
+    private final File directory;
+    private final long missingRetryMs;
+    private final Map<String, Long> entries = new ConcurrentHashMap<>();
+    // File size (high 32 bits) and CRC32C (low 32 bits) of present images
+    private final Map<String, Long> contentHashes = new ConcurrentHashMap<>();
+    private final Map<String, Validators> validators = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final ScheduledExecutorService snapshotExecutor;
+
+    /**
+     * Loads the manifest of a cache directory. On first use the directory is scanned
+     * once and legacy placeholder marker files are migrated into the manifest.
+     *
+     * @param directory      the image cache directory
+     * @param missingRetryMs how long a missing image is trusted before its sources are checked again
+     */
+    CacheManifest(File directory, long missingRetryMs) {
+        this.directory = directory;
+        this.missingRetryMs = missingRetryMs;
+        if (!loadSnapshot()) {
+            migrateDirectory();
+        }
+
+        this.snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-manifest-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotExecutor.scheduleWithFixedDelay(this::saveIfDirty,
+            SNAPSHOT_INTERVAL_SECONDS, SNAPSHOT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Returns the state of an image. Missing entries whose retry time has passed
+     * are reported as absent so they are checked again.
+     *
+     * @param pokemonId the Pokemon ID
+     * @return the current cache state
+     */
+    State getState(String pokemonId) {
+        Long entry = entries.get(pokemonId);
+        if (entry == null) {
+            return State.ABSENT;
+        }
+
+        State state = stateOf(entry);
+        if (state == State.MISSING && System.currentTimeMillis() >= timestampOf(entry)) {
+            return State.ABSENT;
+        }
+        return state;
+    }
+
+    /**
+     * Records that the image file is present on disk.
+     *
+     * @param pokemonId the Pokemon ID
+     */
+    void markPresent(String pokemonId) {
+        update(pokemonId, pack(State.PRESENT, System.currentTimeMillis()));
+    }
+
+    /**
+     * Records the size and CRC32C of a present image's file.
+     *
+     * @param pokemonId the Pokemon ID
+     * @param size      the file size in bytes
+     * @param crc32c    the CRC32C of the file contents
+     */
+    void setContentHash(String pokemonId, long size, int crc32c) {
+        contentHashes.put(pokemonId, packContentHash(size, crc32c));
+        dirty.set(true);
+    }
+
+    /**
+     * Checks whether a content hash is recorded for an image.
+     *
+     * @param pokemonId the Pokemon ID
+     * @return true if size and CRC32C are known
+     */
+    boolean hasContentHash(String pokemonId) {
+        return contentHashes.containsKey(pokemonId);
+    }
+
+    /**
+     * Returns the recorded file size of an image.
+     *
+     * @param pokemonId the Pokemon ID
+     * @return the file size in bytes, or -1 if unknown
+     */
+    long getRecordedSize(String pokemonId) {
+        Long hash = contentHashes.get(pokemonId);
+        return hash != null ? hash >>> 32 : -1;
+    }
+
+    /**
+     * Checks file contents against the recorded size and CRC32C.
+     * Images without a recorded hash are reported as matching.
+     *
+     * @param pokemonId the Pokemon ID
+     * @param size      the actual file size
+     * @param crc32c    the actual CRC32C
+     * @return false if a hash is recorded and differs
+     */
+    boolean matchesContentHash(String pokemonId, long size, int crc32c) {
+        Long hash = contentHashes.get(pokemonId);
+        return hash == null || hash == packContentHash(size, crc32c);
+    }
+
+    /**
+     * Records the HTTP validators an image was downloaded or revalidated with.
+     *
+     * @param pokemonId    the Pokemon ID
+     * @param etag         the ETag response header, or null
+     * @param lastModified the Last-Modified time in milliseconds, or 0
+     */
+    void setValidators(String pokemonId, String etag, long lastModified) {
+        validators.put(pokemonId, new Validators(etag, lastModified, System.currentTimeMillis()));
+        dirty.set(true);
+    }
+
+    /**
+     * Returns the HTTP validators of an image.
+     *
+     * @param pokemonId the Pokemon ID
+     * @return the validators, or null if none are recorded
+     */
+    Validators getValidators(String pokemonId) {
+        return validators.get(pokemonId);
+    }
+
+    /**
+     * Records that an image was found current at the given time, keeping its validators.
+     *
+     * @param pokemonId the Pokemon ID
+     * @param checkedAt when the image was known to be current, in milliseconds
+     */
+    void markValidated(String pokemonId, long checkedAt) {
+        validators.compute(pokemonId, (id, previous) -> previous != null
+            ? new Validators(previous.etag, previous.lastModified, checkedAt)
+            : new Validators(null, 0, checkedAt));
+        dirty.set(true);
+    }
+
+    /**
+     * Returns present images that were not checked against the server since the
+     * given time, least recently checked first. Images without validators come first.
+     *
+     * @param checkedBefore the cutoff time in milliseconds
+     * @param maxCount      maximum number of IDs to return
+     * @return IDs due for revalidation
+     */
+    List<String> getRevalidationCandidates(long checkedBefore, int maxCount) {
+        return getPresentIds().stream()
+            .filter(pokemonId -> lastCheckedAt(pokemonId) < checkedBefore)
+            .sorted(Comparator.comparingLong(this::lastCheckedAt))
+            .limit(maxCount)
+            .toList();
+    }
+
+    /**
+     * Returns the IDs of all present images.
+     *
+     * @return present image IDs in no particular order
+     */
+    List<String> getPresentIds() {
+        return entries.entrySet().stream()
+            .filter(entry -> stateOf(entry.getValue()) == State.PRESENT)
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /**
+     * Returns the sprite source that last served an image.
+     *
+     * @param pokemonId the Pokemon ID
+     * @return the source index, or -1 if unknown
+     */
+    int getPreferredSource(String pokemonId) {
+        Long entry = entries.get(pokemonId);
+        return entry != null ? (int) ((entry & PREFERRED_SOURCE_MASK) >>> SOURCE_SHIFT) - 1 : -1;
+    }
+
+    /**
+     * Checks whether a sprite source is known not to have an image.
+     *
+     * @param pokemonId   the Pokemon ID
+     * @param sourceIndex the source index
+     * @return true if the source answered that the image does not exist
+     */
+    boolean isSourceMissing(String pokemonId, int sourceIndex) {
+        Long entry = entries.get(pokemonId);
+        return entry != null && (entry & missingSourceBit(sourceIndex)) != 0;
+    }
+
+    /**
+     * Records the sprite source that served an image. Only kept for images
+     * that are being downloaded or already have an entry.
+     *
+     * @param pokemonId   the Pokemon ID
+     * @param sourceIndex the source index
+     */
+    void recordSource(String pokemonId, int sourceIndex) {
+        long preferred = (long) (sourceIndex + 1) << SOURCE_SHIFT;
+        updateSourceBits(pokemonId,
+            entry -> (entry & ~PREFERRED_SOURCE_MASK & ~missingSourceBit(sourceIndex)) | preferred);
+    }
+
+    /**
+     * Records that a sprite source does not have an image, so it is skipped next time.
+     *
+     * @param pokemonId   the Pokemon ID
+     * @param sourceIndex the source index
+     */
+    void recordSourceMissing(String pokemonId, int sourceIndex) {
+        updateSourceBits(pokemonId, entry -> {
+            if (((entry & PREFERRED_SOURCE_MASK) >>> SOURCE_SHIFT) == sourceIndex + 1) {
+                entry &= ~PREFERRED_SOURCE_MASK;
+            }
+            return entry | missingSourceBit(sourceIndex);
+        });
+    }
+
+    /**
+     * Updates the last access time of a present image, used for LRU eviction.
+     *
+     * @param pokemonId the Pokemon ID
+     */
+    void markAccessed(String pokemonId) {
+        Long entry = entries.get(pokemonId);
+        if (entry != null && stateOf(entry) == State.PRESENT) {
+            update(pokemonId, pack(State.PRESENT, System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Returns the IDs of all present images, least recently accessed first.
+     *
+     * @return eviction candidates in LRU order
+     */
+    List<String> getPresentByLeastRecentAccess() {
+        return entries.entrySet().stream()
+            .filter(entry -> stateOf(entry.getValue()) == State.PRESENT)
+            .sorted(Comparator.comparingLong(entry -> timestampOf(entry.getValue())))
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    /**
+     * Records that no source has an image. The sources are checked again
+     * once the manifest's retry interval has passed, all of them, so the
+     * per-source records are dropped.
+     *
+     * @param pokemonId the Pokemon ID
+     */
+    void markMissing(String pokemonId) {
+        entries.put(pokemonId, pack(State.MISSING, System.currentTimeMillis() + missingRetryMs));
+        dirty.set(true);
+    }
+
+    /**
+     * Records that the image is being downloaded. Not persisted across restarts.
+     *
+     * @param pokemonId the Pokemon ID
+     */
+    void markInProgress(String pokemonId) {
+        entries.merge(pokemonId, pack(State.IN_PROGRESS, System.currentTimeMillis()),
+            (previous, entry) -> entry | (previous & SOURCE_MASK));
+    }
+
+    /**
+     * Forgets an image, e.g. after its file was evicted or turned out to be corrupted.
+     * What is known about its sprite sources is kept.
+     *
+     * @param pokemonId the Pokemon ID
+     */
+    void remove(String pokemonId) {
+        contentHashes.remove(pokemonId);
+        validators.remove(pokemonId);
+        if (entries.containsKey(pokemonId)) {
+            entries.computeIfPresent(pokemonId,
+                (id, entry) -> (entry & SOURCE_MASK) != 0 ? entry & SOURCE_MASK : null);
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Forgets all missing-image records so their sources are checked again.
+     */
+    void clearMissing() {
+        if (entries.values().removeIf(entry -> stateOf(entry) == State.MISSING)) {
+            dirty.set(true);
+        }
+    }
+
+    /**
+     * Stops the periodic snapshots and writes a final one.
+     */
+    void close() {
+        snapshotExecutor.shutdownNow();
+        saveIfDirty();
+    }
+
+    /**
+     * Writes a snapshot if the manifest changed since the last one.
+     */
+    private void saveIfDirty() {
+        if (dirty.compareAndSet(true, false)) {
+            try {
+                saveSnapshot();
+            } catch (IOException e) {
+                dirty.set(true);
+                System.err.println("Failed to save cache manifest: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Writes all persistent entries to a temporary file and atomically replaces the snapshot.
+     */
+    private synchronized void saveSnapshot() throws IOException {
+        Path snapshot = new File(directory, SNAPSHOT_FILE).toPath();
+        Path temporary = Files.createTempFile(directory.toPath(), SNAPSHOT_FILE + "-", ".part");
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(SNAPSHOT_MAGIC);
+                output.writeInt(SNAPSHOT_VERSION);
+
+                for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                    if (stateOf(entry.getValue()) != State.IN_PROGRESS) {
+                        output.writeBoolean(true);
+                        output.writeUTF(entry.getKey());
+                        output.writeLong(entry.getValue());
+                        output.writeLong(contentHashes.getOrDefault(entry.getKey(), 0L));
+                        writeValidators(output, validators.get(entry.getKey()));
+                    }
+                }
+                output.writeBoolean(false);
+            }
+
+            try {
+                Files.move(temporary, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads the snapshot file, returning false if there is none or it is unreadable.
+     */
+    private boolean loadSnapshot() {
+        File snapshot = new File(directory, SNAPSHOT_FILE);
+        if (!snapshot.isFile()) {
+            return false;
+        }
+
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshot.toPath())))) {
+            if (input.readInt() != SNAPSHOT_MAGIC) {
+                return false;
+            }
+            int version = input.readInt();
+            if (version != SNAPSHOT_VERSION && version != HASHES_SNAPSHOT_VERSION
+                    && version != LEGACY_SNAPSHOT_VERSION) {
+                return false;
+            }
+            while (input.readBoolean()) {
+                String pokemonId = input.readUTF();
+                entries.put(pokemonId, input.readLong());
+                // Version 1 snapshots have no content hashes; they are recorded on first verification
+                long contentHash = version >= HASHES_SNAPSHOT_VERSION ? input.readLong() : 0;
+                if (contentHash != 0) {
+                    contentHashes.put(pokemonId, contentHash);
+                }
+                // Older snapshots have no validators; those images are revalidated by content
+                Validators entryValidators = version == SNAPSHOT_VERSION ? readValidators(input) : null;
+                if (entryValidators != null) {
+                    validators.put(pokemonId, entryValidators);
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable cache manifest: " + e.getMessage());
+            entries.clear();
+            contentHashes.clear();
+            validators.clear();
+            return false;
+        }
+    }
+
+    /**
+     * Builds the manifest from the directory contents and removes legacy placeholder files.
+     */
+    private void migrateDirectory() {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(IMAGE_SUFFIX)) {
+                entries.put(name.substring(0, name.length() - IMAGE_SUFFIX.length()), pack(State.PRESENT, now));
+            } else if (name.endsWith(LEGACY_PLACEHOLDER_SUFFIX)) {
+                entries.putIfAbsent(name.substring(0, name.length() - LEGACY_PLACEHOLDER_SUFFIX.length()),
+                                    pack(State.MISSING, now + missingRetryMs));
+                file.delete();
+            }
+        }
+        dirty.set(true);
+    }
+
+    private long lastCheckedAt(String pokemonId) {
+        Validators entryValidators = validators.get(pokemonId);
+        return entryValidators != null ? entryValidators.checkedAt : 0;
+    }
+
+    private static void writeValidators(DataOutputStream output, Validators entryValidators) throws IOException {
+        output.writeBoolean(entryValidators != null);
+        if (entryValidators != null) {
+            output.writeUTF(entryValidators.etag != null ? entryValidators.etag : "");
+            output.writeLong(entryValidators.lastModified);
+            output.writeLong(entryValidators.checkedAt);
+        }
+    }
+
+    private static Validators readValidators(DataInputStream input) throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        String etag = input.readUTF();
+        long lastModified = input.readLong();
+        long checkedAt = input.readLong();
+        return new Validators(etag.isEmpty() ? null : etag, lastModified, checkedAt);
+    }
+
+    /**
+     * Stores a new state and timestamp, keeping the sprite source bits.
+     */
+    private void update(String pokemonId, long entry) {
+        entries.merge(pokemonId, entry, (previous, updated) -> updated | (previous & SOURCE_MASK));
+        dirty.set(true);
+    }
+
+    private void updateSourceBits(String pokemonId, LongUnaryOperator change) {
+        if (entries.computeIfPresent(pokemonId, (id, entry) -> change.applyAsLong(entry)) != null) {
+            dirty.set(true);
+        }
+    }
+
+    private static long missingSourceBit(int sourceIndex) {
+        return 1L << (MISSING_SOURCES_SHIFT + sourceIndex);
+    }
+
+    private static long packContentHash(long size, int crc32c) {
+        return (size << 32) | (crc32c & 0xFFFFFFFFL);
+    }
+
+    private static long pack(State state, long timestamp) {
+        return ((long) state.ordinal() << STATE_SHIFT) | (timestamp & TIMESTAMP_MASK);
+    }
+
+    private static State stateOf(long entry) {
+        return State.values()[(int) (entry >>> STATE_SHIFT)];
+    }
+
+    private static long timestampOf(long entry) {
+        return entry & TIMESTAMP_MASK;
+    }
+}
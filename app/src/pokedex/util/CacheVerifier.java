@@ -0,0 +1,150 @@
+package pokedex.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.zip.CRC32C;
+
+/**
+ * Finds corrupted image files in the disk cache before a load trips over them.
+ * Files are checked against the size and CRC32C recorded in the cache manifest,
+ * without decoding. A quick size check runs once at startup; full checksum passes
+ * run in small batches whenever the image loader is idle. Images cached before
+ * hashes were recorded get theirs on first verification, after a structural PNG
+ * check. Corrupted files are deleted and handed to a repair callback, which
+ * downloads them again in the background.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class CacheVerifier {
+
+    private final CacheManifest manifest;
+    private final Function<String, File> imageFileResolver;
+    private final Set<String> protectedIds;
+    private final Consumer<String> repairHandler;
+    private final long passIntervalMs;
+
+    // IDs left to check in the current pass; only used by the maintenance thread
+    private final Deque<String> remaining = new ArrayDeque<>();
+    private long lastPassStartedAt;
+
+    /**
+     * Creates a verifier for the image cache.
+     *
+     * @param manifest          the manifest holding the content hashes
+     * @param imageFileResolver maps a Pokemon ID to its image file
+     * @param protectedIds      IDs whose files are being written and must be skipped
+     * @param repairHandler     receives the IDs of deleted corrupted images
+     * @param passIntervalMs    minimum time between the starts of two full passes
+     */
+    CacheVerifier(CacheManifest manifest, Function<String, File> imageFileResolver, Set<String> protectedIds,
+                  Consumer<String> repairHandler, long passIntervalMs) {
+        this.manifest = manifest;
+        this.imageFileResolver = imageFileResolver;
+        this.protectedIds = protectedIds;
+        this.repairHandler = repairHandler;
+        this.passIntervalMs = passIntervalMs;
+    }
+
+    /**
+     * Computes the checksum recorded for image files.
+     *
+     * @param bytes the file contents
+     * @return the CRC32C of the contents
+     */
+    static int checksum(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Compares every present image's file size with the recorded one. Only reads
+     * file metadata, so it is cheap enough to run at every startup.
+     *
+     * @return number of corrupted images found
+     */
+    int checkSizes() {
+        int corrupted = 0;
+        for (String pokemonId : manifest.getPresentIds()) {
+            long recordedSize = manifest.getRecordedSize(pokemonId);
+            if (recordedSize < 0 || protectedIds.contains(pokemonId)) {
+                continue;
+            }
+            if (imageFileResolver.apply(pokemonId).length() != recordedSize) {
+                repair(pokemonId);
+                corrupted++;
+            }
+        }
+        return corrupted;
+    }
+
+    /**
+     * Verifies the checksums of the next few images of the current pass, starting
+     * a new pass once the previous one is finished and the pass interval has passed.
+     *
+     * @param maxFiles maximum number of files to read
+     * @return number of corrupted images found
+     */
+    int verifyBatch(int maxFiles) {
+        if (remaining.isEmpty()) {
+            long now = System.currentTimeMillis();
+            if (lastPassStartedAt != 0 && now - lastPassStartedAt < passIntervalMs) {
+                return 0;
+            }
+            lastPassStartedAt = now;
+            remaining.addAll(manifest.getPresentIds());
+        }
+
+        int corrupted = 0;
+        for (int i = 0; i < maxFiles && !remaining.isEmpty(); i++) {
+            String pokemonId = remaining.poll();
+            if (manifest.getState(pokemonId) == CacheManifest.State.PRESENT
+                    && !protectedIds.contains(pokemonId) && !verify(pokemonId)) {
+                repair(pokemonId);
+                corrupted++;
+            }
+        }
+        return corrupted;
+    }
+
+    /**
+     * Checks one image file, recording its hash if none is known yet.
+     */
+    private boolean verify(String pokemonId) {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(imageFileResolver.apply(pokemonId).toPath());
+        } catch (IOException e) {
+            return false;
+        }
+
+        int crc = checksum(bytes);
+        if (manifest.hasContentHash(pokemonId)) {
+            return manifest.matchesContentHash(pokemonId, bytes.length, crc);
+        }
+        if (!PngFormat.hasValidHeader(bytes) || !PngFormat.isComplete(bytes)) {
+            return false;
+        }
+        manifest.setContentHash(pokemonId, bytes.length, crc);
+        return true;
+    }
+
+    /**
+     * Deletes a corrupted image and requests its repair.
+     */
+    private void repair(String pokemonId) {
+        manifest.remove(pokemonId);
+        File file = imageFileResolver.apply(pokemonId);
+        if (!file.delete() && file.exists()) {
+            System.err.println("Failed to delete corrupted cache file: " + file.getName());
+        }
+        repairHandler.accept(pokemonId);
+    }
+}
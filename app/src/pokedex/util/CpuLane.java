@@ -0,0 +1,91 @@
+package pokedex.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of platform threads for CPU-bound image work (decoding and scaling).
+ * The I/O stage hands its results over through a bounded queue: when every worker is
+ * busy and the queue is full, callers block until a slot frees up instead of piling
+ * decoded-but-unscaled images up in memory. Work submitted here must not itself wait
+ * for other CPU lane work, or the pool could deadlock.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class CpuLane {
+
+    private final ThreadPoolExecutor executor;
+    private final Semaphore slots;
+
+    /**
+     * Creates the pool and its hand-over queue.
+     *
+     * @param name          prefix of the worker thread names
+     * @param workerCount   number of worker threads
+     * @param queueCapacity number of tasks that may wait for a worker
+     */
+    CpuLane(String name, int workerCount, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, name + "-" + threadNumber.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        // One permit per worker and queue slot, so the queue never overflows
+        this.slots = new Semaphore(workerCount + queueCapacity);
+    }
+
+    /**
+     * Runs work on the pool and waits for its result, blocking first while the
+     * hand-over queue is full.
+     *
+     * @param work the CPU-bound work
+     * @param <T>  the result type
+     * @return the work's result
+     * @throws Exception the work's own failure, or an interruption while waiting
+     */
+    <T> T call(Callable<T> work) throws Exception {
+        slots.acquire();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    return work.call();
+                } finally {
+                    slots.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+
+        // An interrupted caller leaves the work running; it is short and releases its own slot
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : new Exception(cause);
+        }
+    }
+
+    /**
+     * Stops the pool after the queued work has finished.
+     *
+     * @param timeout maximum time to wait
+     * @param unit    unit of the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,59 @@
+package pokedex.util;
+
+import java.awt.GraphicsDevice;
+import java.awt.GraphicsEnvironment;
+import java.util.TreeSet;
+
+/**
+ * Reports the HiDPI scale factors of the attached screens (e.g. 2.0 on a monitor
+ * scaled to 200%), so images can be rendered at native resolution for each of them.
+ * The screens are queried on every call, so monitors that are attached or rescaled
+ * while the application runs are picked up by later image loads.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class DisplayScales {
+
+    private static final double[] DEFAULT_SCALES = {1.0};
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private DisplayScales() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Returns the distinct scale factors of all screens in ascending order.
+     * The logical scale 1.0 is always included; in headless mode it is the only one.
+     *
+     * @return the active scale factors
+     */
+    static double[] getActiveScales() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return DEFAULT_SCALES;
+        }
+
+        TreeSet<Double> scales = new TreeSet<>();
+        scales.add(1.0);
+        for (GraphicsDevice device : GraphicsEnvironment.getLocalGraphicsEnvironment().getScreenDevices()) {
+            double scale = device.getDefaultConfiguration().getDefaultTransform().getScaleX();
+            if (scale > 0) {
+                scales.add(scale);
+            }
+        }
+        return scales.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+
+    /**
+     * Converts a logical size to device pixels at the given scale.
+     *
+     * @param logicalSize the size in logical pixels
+     * @param scale       the scale factor
+     * @return the size in device pixels
+     */
+    static int toPixels(int logicalSize, double scale) {
+        return Math.max(1, (int) Math.round(logicalSize * scale));
+    }
+}
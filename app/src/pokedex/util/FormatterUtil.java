@@ -16,6 +16,25 @@ public final class FormatterUtil {
         throw new AssertionError("Utility class should not be instantiated");
     }
 
+    /**
+     * Formats an estimated remaining time for display, rounded to what a user cares
+     * about: seconds under a minute, minutes under an hour, hours and minutes above.
+     * 
+     * @param seconds the remaining time in seconds
+     * @return formatted duration, e.g. "~45 s", "~3 min" or "~1 godz. 20 min"
+     */
+    public static String formatDuration(long seconds) {
+        long safeSeconds = Math.max(0, seconds);
+        if (safeSeconds < 60) {
+            return "~" + safeSeconds + " s";
+        }
+        long minutes = (safeSeconds + 30) / 60;
+        if (minutes < 60) {
+            return "~" + minutes + " min";
+        }
+        return "~" + minutes / 60 + " godz. " + minutes % 60 + " min";
+    }
+
     /**
      * Formats a raw Pokemon name from API format to display format.
      * Converts hyphen-separated lowercase names to proper title case.
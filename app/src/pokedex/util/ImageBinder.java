@@ -0,0 +1,222 @@
+package pokedex.util;
+
+import javax.swing.*;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Binds Swing components to asynchronous image loads.
+ * A binding is active only while its component is showing: its load is queued
+ * when the component appears and cancelled when it is removed or hidden (e.g.
+ * filtered out of the grid). Rebinding a component cancels the previous load,
+ * and every result is delivered on the Event Dispatch Thread only if its
+ * binding is still the component's current one, so stale images never land
+ * on a reused component.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class ImageBinder {
+
+    private static final String BINDING_PROPERTY = "pokedex.imageBinding";
+    private static final String LISTENER_PROPERTY = "pokedex.imageBindingListener";
+    private static final AtomicLong GENERATIONS = new AtomicLong();
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private ImageBinder() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Binds a component to a scaled image load. May be called from any thread;
+     * the binding itself is installed on the Event Dispatch Thread.
+     *
+     * @param component  the component whose lifecycle controls the load
+     * @param pokemonId  the Pokemon ID
+     * @param targetSize the desired image size
+     * @param priority   the initial scheduling class
+     * @param callback   receives the icon (null if none exists) or the failure, on the EDT
+     * @return the generation token identifying this binding
+     */
+    static long bind(JComponent component, String pokemonId, int targetSize,
+                     ImagePriority priority, BiConsumer<ImageIcon, Throwable> callback) {
+        Binding binding = new Binding(GENERATIONS.incrementAndGet(), pokemonId, targetSize, priority, callback);
+        runOnEdt(() -> install(component, binding));
+        return binding.generation;
+    }
+
+    /**
+     * Removes a component's binding and cancels its pending load.
+     *
+     * @param component the bound component
+     */
+    static void unbind(JComponent component) {
+        runOnEdt(() -> {
+            Binding binding = currentBinding(component);
+            if (binding != null) {
+                component.putClientProperty(BINDING_PROPERTY, null);
+                binding.deactivate();
+            }
+        });
+    }
+
+    /**
+     * Moves a component's pending load to another scheduling class.
+     * Must be called on the Event Dispatch Thread.
+     *
+     * @param component the bound component
+     * @param priority  the new scheduling class
+     */
+    static void setPriority(JComponent component, ImagePriority priority) {
+        Binding binding = currentBinding(component);
+        if (binding != null && binding.priority != priority) {
+            binding.priority = priority;
+            if (binding.isPending()) {
+                ImageCache.reprioritize(binding.pokemonId, binding.targetSize, priority);
+            }
+        }
+    }
+
+    /**
+     * Returns the generation token of a component's current binding.
+     *
+     * @param component the component
+     * @return the generation token, or 0 if the component is not bound
+     */
+    static long getGeneration(JComponent component) {
+        Binding binding = currentBinding(component);
+        return binding != null ? binding.generation : 0;
+    }
+
+    /**
+     * Replaces the component's binding and starts loading if it is showing.
+     */
+    private static void install(JComponent component, Binding binding) {
+        Binding previous = currentBinding(component);
+        if (previous != null) {
+            previous.deactivate();
+        }
+
+        component.putClientProperty(BINDING_PROPERTY, binding);
+        ensureShowingListener(component);
+        if (component.isShowing()) {
+            binding.activate(component);
+        }
+    }
+
+    /**
+     * Adds (once per component) the listener that starts and cancels loads as the
+     * component is shown and hidden.
+     */
+    private static void ensureShowingListener(JComponent component) {
+        if (component.getClientProperty(LISTENER_PROPERTY) != null) {
+            return;
+        }
+
+        HierarchyListener listener = event -> {
+            if ((event.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) == 0) {
+                return;
+            }
+            Binding binding = currentBinding(component);
+            if (binding == null) {
+                return;
+            }
+            if (component.isShowing()) {
+                binding.activate(component);
+            } else {
+                binding.deactivate();
+            }
+        };
+        component.addHierarchyListener(listener);
+        component.putClientProperty(LISTENER_PROPERTY, listener);
+    }
+
+    private static Binding currentBinding(JComponent component) {
+        return (Binding) component.getClientProperty(BINDING_PROPERTY);
+    }
+
+    private static void runOnEdt(Runnable action) {
+        if (SwingUtilities.isEventDispatchThread()) {
+            action.run();
+        } else {
+            SwingUtilities.invokeLater(action);
+        }
+    }
+
+    /**
+     * State of one binding. Only touched on the Event Dispatch Thread.
+     */
+    private static final class Binding {
+        final long generation;
+        final String pokemonId;
+        final int targetSize;
+        final BiConsumer<ImageIcon, Throwable> callback;
+        ImagePriority priority;
+        CompletableFuture<ImageIcon> pending;
+        boolean delivered;
+
+        Binding(long generation, String pokemonId, int targetSize,
+                ImagePriority priority, BiConsumer<ImageIcon, Throwable> callback) {
+            this.generation = generation;
+            this.pokemonId = pokemonId;
+            this.targetSize = targetSize;
+            this.priority = priority;
+            this.callback = callback;
+        }
+
+        boolean isPending() {
+            return pending != null && !pending.isDone();
+        }
+
+        /**
+         * Queues the load unless it is already queued or its result was delivered.
+         */
+        void activate(JComponent component) {
+            if (delivered || isPending()) {
+                return;
+            }
+
+            CompletableFuture<ImageIcon> load = ImageCache.submitScaledLoad(pokemonId, targetSize, priority);
+            pending = load;
+            load.whenComplete((icon, error) -> SwingUtilities.invokeLater(() -> deliver(component, load, icon, error)));
+        }
+
+        /**
+         * Cancels the queued load. Other bindings waiting for the same image are unaffected.
+         */
+        void deactivate() {
+            if (isPending()) {
+                ImageCache.cancelScaledLoad(pokemonId, targetSize);
+            }
+            pending = null;
+        }
+
+        /**
+         * Hands a result to the callback if this binding and load are still current.
+         */
+        private void deliver(JComponent component, CompletableFuture<ImageIcon> load,
+                             ImageIcon icon, Throwable error) {
+            if (load != pending || currentBinding(component) != this) {
+                return; // Stale result of a rebound, removed or cancelled binding
+            }
+
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+            if (cause instanceof CancellationException) {
+                return;
+            }
+
+            pending = null;
+            // A failed load is retried the next time the component is shown
+            delivered = cause == null;
+            callback.accept(icon, cause);
+        }
+    }
+}
@@ -3,46 +3,176 @@ package pokedex.util;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BaseMultiResolutionImage;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.InputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.net.URL;
-import java.util.concurrent.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
 
 /**
  * Thread-safe image caching utility for Pokemon sprites.
  * Handles downloading, caching, and scaling of Pokemon images with fallback URLs.
  * Provides both synchronous and asynchronous loading capabilities.
- * Now uses try-with-resources for proper file handling and creates placeholder
- * files for Pokemon without available images to avoid repeated download attempts.
+ * Now uses try-with-resources for proper file handling and keeps a cache manifest
+ * recording which images are present or missing, so cache lookups need no file
+ * system probes and missing images are only re-checked after a retry interval.
+ * Blocking I/O and CPU-bound decoding/scaling run in separate lanes, so slow
+ * downloads never occupy the threads that decode and scale.
  * 
  * @author Eryk Darnowski (7741)
  * @version 1.0.0
  */
 public final class ImageCache {
 
-    private static final File CACHE_DIR = new File("tmp");
-    private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(
-        Math.max(2, Runtime.getRuntime().availableProcessors()));
+    private static final File CACHE_DIR = CacheLocation.resolve("images");
+    
+    // CPU lane: decoding and scaling run on one platform thread per core behind a bounded queue
+    private static final int CPU_THREADS = Runtime.getRuntime().availableProcessors();
+    private static final int CPU_QUEUE_CAPACITY = CPU_THREADS * 2;
+    private static final CpuLane CPU_LANE = new CpuLane("image-decoder", CPU_THREADS, CPU_QUEUE_CAPACITY);
+    
+    // I/O lane: downloads and file reads run on virtual threads, capped by concurrency.
+    // Loads waiting for the CPU lane give up their I/O slot; the started loads are
+    // capped at the I/O slots plus what the CPU lane can hold
+    private static final int IO_CONCURRENCY = 32;
+    private static final PriorityTaskScheduler<ImageIcon> SCHEDULER = new PriorityTaskScheduler<>(
+        "image-loader", IO_CONCURRENCY, IO_CONCURRENCY + CPU_THREADS + CPU_QUEUE_CAPACITY);
+    private static final ExecutorService PERSIST_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "image-cache-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ScheduledExecutorService MAINTENANCE_EXECUTOR =
+        Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "image-cache-maintenance");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    
+    // Longest time shutdown() waits for running loads and pending cache writes
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+    
+    // Disk quota enforcement interval
+    private static final long EVICTION_INTERVAL_SECONDS = 60;
+    
+    // Integrity checks: files hashed per idle batch, batch interval and full pass interval
+    private static final int VERIFY_BATCH_SIZE = 16;
+    private static final long VERIFY_INTERVAL_SECONDS = 15;
+    private static final long VERIFY_PASS_INTERVAL_MS = TimeUnit.HOURS.toMillis(6);
+
+    // Revalidation against the sprite servers: age after which a file is checked again
+    // (0 disables), files checked per idle batch and batch interval
+    private static final long DEFAULT_REVALIDATE_DAYS = 7;
+    private static final long REVALIDATE_AFTER_MS =
+        TimeUnit.DAYS.toMillis(Long.getLong("pokedex.cache.revalidate.days", DEFAULT_REVALIDATE_DAYS));
+    private static final int REVALIDATE_BATCH_SIZE = 8;
+    private static final long REVALIDATE_INTERVAL_SECONDS = 60;
+
+    // Statistics log interval in seconds; 0 disables the periodic log
+    private static final long DEFAULT_STATS_INTERVAL_SECONDS = 300;
+    private static final long STATS_INTERVAL_SECONDS =
+        Long.getLong("pokedex.cache.stats.interval.s", DEFAULT_STATS_INTERVAL_SECONDS);
+    private static final ImageCacheMetrics METRICS = new ImageCacheMetrics();
+    
+    // Default in-memory budgets are a share of the maximum heap, capped for large heaps;
+    // together the three tiers take at most about a third of the heap
+    
+    // Memory budget for scaled images, configurable with -Dpokedex.cache.memory.mb=<megabytes>
+    // (default an eighth of the heap, at most 48 MB)
+    private static final long DEFAULT_SCALED_CACHE_MB = heapShareMb(8, 48);
+    private static final long SCALED_CACHE_MAX_BYTES =
+        Long.getLong("pokedex.cache.memory.mb", DEFAULT_SCALED_CACHE_MB) * 1024 * 1024;
+    private static final WeightedCache<String, ImageIcon> SCALED_CACHE =
+        new WeightedCache<>(SCALED_CACHE_MAX_BYTES, ImageCache::estimateIconBytes);
+    
+    // Memory budget for full-resolution images, configurable with -Dpokedex.cache.full.mb=<megabytes>
+    // (default an eighth of the heap, at most 64 MB)
+    private static final long DEFAULT_FULL_CACHE_MB = heapShareMb(8, 64);
+    private static final long FULL_CACHE_MAX_BYTES =
+        Long.getLong("pokedex.cache.full.mb", DEFAULT_FULL_CACHE_MB) * 1024 * 1024;
+    private static final WeightedCache<String, ImageIcon> FULL_CACHE =
+        new WeightedCache<>(FULL_CACHE_MAX_BYTES, ImageCache::estimateIconBytes);
     
-    private static final Map<String, ImageIcon> SCALED_CACHE = new ConcurrentHashMap<>();
+    // Budget for encoded PNG bytes, configurable with -Dpokedex.cache.encoded.mb=<megabytes>.
+    // Kept on the heap, so evicted bytes are freed like any other garbage and the memory
+    // monitor can shed them (default a sixteenth of the heap, at most 32 MB)
+    private static final long DEFAULT_ENCODED_CACHE_MB = heapShareMb(16, 32);
+    private static final long ENCODED_CACHE_MAX_BYTES =
+        Long.getLong("pokedex.cache.encoded.mb", DEFAULT_ENCODED_CACHE_MB) * 1024 * 1024;
+    private static final WeightedCache<String, byte[]> ENCODED_CACHE =
+        new WeightedCache<>(ENCODED_CACHE_MAX_BYTES, imageBytes -> imageBytes.length);
     
-    // Pokemon sprite URLs in order of preference (highest quality first)
-    private static final String[] SPRITE_URLS = {
-        "https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/official-artwork/%s.png",
-        "https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/home/%s.png",
-        "https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/%s.png"
-    };
+    // Heap fill level after a collection at which the memory tiers start shedding entries
+    private static final double MEMORY_PRESSURE_THRESHOLD = 0.7;
+    private static final MemoryPressureMonitor MEMORY_MONITOR = createMemoryMonitor();
     
-    // Placeholder marker for missing images
-    private static final String PLACEHOLDER_MARKER = ".placeholder";
+    // How long a Pokemon without an image is trusted before its sources are checked again
+    private static final long MISSING_IMAGE_RETRY_MS = TimeUnit.DAYS.toMillis(7);
+    
+    // Suffix of partially downloaded files, renamed into place once complete
+    private static final String PARTIAL_SUFFIX = ".part";
+    
+    // Loads currently in progress, shared by all threads asking for the same image
+    private static final Map<String, CompletableFuture<ImageIcon>> LOADS_IN_FLIGHT = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<ImageIcon>> SCALES_IN_FLIGHT = new ConcurrentHashMap<>();
+    
+    // Downloads currently in progress, so a load and a prefetch of the same image share one
+    private static final Map<String, CompletableFuture<Void>> DOWNLOADS_IN_FLIGHT = new ConcurrentHashMap<>();
+    
+    // Downloaded image bytes waiting to be written to disk by PERSIST_EXECUTOR
+    private static final Map<String, byte[]> PENDING_WRITES = new ConcurrentHashMap<>();
 
     static {
         initializeCacheDirectory();
     }
+    
+    // In-memory record of which images are present, missing or downloading
+    private static final CacheManifest MANIFEST = new CacheManifest(CACHE_DIR, MISSING_IMAGE_RETRY_MS);
+    
+    // Raw-pixel atlases serving grid thumbnails without decoding or scaling, one per pixel size
+    private static final Map<Integer, ThumbnailAtlas> THUMBNAIL_ATLASES = new ConcurrentHashMap<>();
+    private static final Set<Integer> UNAVAILABLE_ATLAS_SIZES = ConcurrentHashMap.newKeySet();
+    
+    // Deletes least recently used images when the cache exceeds its disk quota
+    private static final CacheEvictor EVICTOR = new CacheEvictor(
+        CACHE_DIR, CacheLocation.getQuotaBytes(), MANIFEST, ImageCache::getCacheFile,
+        PENDING_WRITES.keySet());
+    
+    // Detects corrupted image files and schedules their repair
+    private static final CacheVerifier VERIFIER = new CacheVerifier(
+        MANIFEST, ImageCache::getCacheFile, PENDING_WRITES.keySet(), ImageCache::scheduleRepair,
+        VERIFY_PASS_INTERVAL_MS);
+
+    static {
+        MAINTENANCE_EXECUTOR.scheduleWithFixedDelay(ImageCache::enforceDiskQuota,
+            EVICTION_INTERVAL_SECONDS, EVICTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        MAINTENANCE_EXECUTOR.execute(ImageCache::checkCacheSizes);
+        MAINTENANCE_EXECUTOR.scheduleWithFixedDelay(ImageCache::verifyWhenIdle,
+            VERIFY_INTERVAL_SECONDS, VERIFY_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        if (REVALIDATE_AFTER_MS > 0) {
+            MAINTENANCE_EXECUTOR.scheduleWithFixedDelay(ImageCache::revalidateWhenIdle,
+                REVALIDATE_INTERVAL_SECONDS, REVALIDATE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+        if (STATS_INTERVAL_SECONDS > 0) {
+            MAINTENANCE_EXECUTOR.scheduleWithFixedDelay(ImageCache::logStatistics,
+                STATS_INTERVAL_SECONDS, STATS_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
 
     /**
      * Prevents instantiation of this utility class.
@@ -53,121 +183,426 @@ public final class ImageCache {
 
     /**
      * Loads a Pokemon image synchronously. Downloads if not cached locally.
-     * Returns null for Pokemon that have no available images (marked with placeholder).
+     * Returns null for Pokemon that have no available images (marked as missing in the manifest).
+     * Concurrent calls for the same Pokemon share a single download and decode.
+     * The full-resolution image is kept in memory while the heap has headroom.
      * 
      * @param pokemonId the Pokemon ID
      * @return ImageIcon for the Pokemon, or null if no image exists
      * @throws Exception if image cannot be loaded or downloaded
      */
     public static ImageIcon load(String pokemonId) throws Exception {
-        validatePokemonId(pokemonId);
+        return loadOriginal(pokemonId, true);
+    }
+
+    /**
+     * Loads an unscaled image, serving it from the memory tier when possible.
+     * The image key is the Pokemon ID for the artwork, or the key of a smaller
+     * sprite chosen by {@link SpriteSources#imageKeyFor}.
+     * Only images that are likely to be shown again at full size are retained;
+     * thumbnails and background preloads pass through without displacing them.
+     */
+    private static ImageIcon loadOriginal(String imageKey, boolean retain) throws Exception {
+        validatePokemonId(imageKey);
         
-        File cachedFile = getCacheFile(pokemonId);
-        File placeholderMarker = getPlaceholderMarkerFile(pokemonId);
+        ImageIcon cached = FULL_CACHE.get(imageKey);
+        if (cached != null) {
+            return cached;
+        }
+        
+        ImageIcon original = loadOnce(LOADS_IN_FLIGHT, imageKey, () -> loadUncoalesced(imageKey));
+        if (retain && original != null && !MEMORY_MONITOR.isUnderPressure()) {
+            FULL_CACHE.put(imageKey, original);
+        }
+        return original;
+    }
+
+    /**
+     * Loads a Pokemon image from the disk cache or network, without coalescing.
+     */
+    private static ImageIcon loadUncoalesced(String imageKey) throws Exception {
+        CacheManifest.State state = MANIFEST.getState(imageKey);
         
         // Check if this Pokemon is marked as having no image
-        if (placeholderMarker.exists()) {
+        if (state == CacheManifest.State.MISSING) {
+            METRICS.placeholderHits.increment();
             return null;
         }
         
-        // If image doesn't exist, try to download it
-        if (!cachedFile.exists()) {
-            if (!downloadImage(pokemonId, cachedFile)) {
-                // Download failed from all sources - create placeholder marker
-                createPlaceholderMarker(placeholderMarker);
+        // Freshly downloaded bytes may not have reached the disk yet
+        byte[] pendingBytes = PENDING_WRITES.get(imageKey);
+        if (pendingBytes != null) {
+            return new ImageIcon(decodeImage(pendingBytes));
+        }
+        
+        // Recently used images are decoded from memory without touching the disk
+        ImageIcon fromEncoded = loadFromEncodedCache(imageKey);
+        if (fromEncoded != null) {
+            MANIFEST.markAccessed(imageKey);
+            return fromEncoded;
+        }
+        
+        // If image isn't cached, try to download it
+        if (state != CacheManifest.State.PRESENT) {
+            ImageIcon[] downloaded = new ImageIcon[1];
+            boolean performed = downloadOnce(imageKey, () -> {
+                METRICS.memoryMisses.increment();
+                METRICS.diskMisses.increment();
+                downloaded[0] = downloadAndDecode(imageKey);
                 return null;
-            }
+            });
+            // A download started elsewhere (e.g. a prefetch) has left its bytes behind
+            return performed ? downloaded[0] : loadUncoalesced(imageKey);
         }
         
-        return loadImageFromFile(cachedFile, pokemonId);
+        METRICS.memoryMisses.increment();
+        MANIFEST.markAccessed(imageKey);
+        return loadImageFromFile(getCacheFile(imageKey), imageKey);
     }
 
     /**
      * Loads and scales a Pokemon image synchronously.
+     * On HiDPI screens the icon holds a multi-resolution image with one variant per
+     * active scale factor, so it is painted at native resolution instead of being
+     * upscaled. Variants are created on first use and cached per (ID, size, scale).
      * 
      * @param pokemonId the Pokemon ID
-     * @param targetSize the desired image size
+     * @param targetSize the desired image size in logical pixels
      * @return scaled ImageIcon, or null if no image exists
      * @throws Exception if image cannot be loaded or scaled
      */
     public static ImageIcon loadScaled(String pokemonId, int targetSize) throws Exception {
-        String cacheKey = createScaledCacheKey(pokemonId, targetSize);
+        ImageIcon base = loadVariant(pokemonId, targetSize, 1.0);
+        double[] scales = DisplayScales.getActiveScales();
+        if (base == null || scales.length == 1) {
+            return base;
+        }
+        
+        // A variant that cannot be created is left out; Java2D then scales the nearest one
+        List<Image> variants = new ArrayList<>();
+        variants.add(base.getImage());
+        for (double scale : scales) {
+            if (scale <= 1.0) {
+                continue;
+            }
+            try {
+                ImageIcon variant = loadVariant(pokemonId, targetSize, scale);
+                if (variant != null) {
+                    variants.add(variant.getImage());
+                }
+            } catch (Exception e) {
+                logError("Failed to create " + scale + "x image for Pokemon #" + pokemonId, e);
+            }
+        }
+        
+        if (variants.size() == 1) {
+            return base;
+        }
+        return new ImageIcon(new BaseMultiResolutionImage(variants.toArray(new Image[0])));
+    }
+
+    /**
+     * Loads the variant of a scaled image for one display scale factor.
+     */
+    private static ImageIcon loadVariant(String pokemonId, int targetSize, double scale) throws Exception {
+        int pixelSize = DisplayScales.toPixels(targetSize, scale);
+        String cacheKey = createVariantCacheKey(pokemonId, targetSize, scale);
         
         ImageIcon cached = SCALED_CACHE.get(cacheKey);
         if (cached != null) {
             return cached;
         }
+        
+        String imageKey = SpriteSources.imageKeyFor(pokemonId, pixelSize);
+        ThumbnailAtlas atlas = getThumbnailAtlas(targetSize, pixelSize);
+        ImageIcon thumbnail = loadFromAtlas(atlas, imageKey);
+        if (thumbnail != null) {
+            METRICS.atlasHits.increment();
+            SCALED_CACHE.put(cacheKey, thumbnail);
+            return thumbnail;
+        }
+
+        return loadOnce(SCALES_IN_FLIGHT, cacheKey,
+            () -> loadAndScale(imageKey, targetSize, pixelSize, cacheKey, atlas));
+    }
 
-        ImageIcon original = load(pokemonId);
+    /**
+     * Loads the original image and stores a scaled copy in the memory cache.
+     */
+    private static ImageIcon loadAndScale(String imageKey, int targetSize, int pixelSize, String cacheKey,
+                                          ThumbnailAtlas atlas) throws Exception {
+        // Grid thumbnails end up in the atlas, so their originals are not worth keeping
+        boolean retainOriginal = targetSize != UIConstants.Sizes.IMAGE_THUMBNAIL;
+        ImageIcon original = loadOriginal(imageKey, retainOriginal);
         if (original == null) {
             // No image available for this Pokemon
             return null;
         }
         
-        ImageIcon scaled = scaleImage(original, targetSize);
+        ImageIcon scaled = scaleImage(original, pixelSize);
         
         if (scaled != null) {
             SCALED_CACHE.put(cacheKey, scaled);
+            storeInAtlasAsync(atlas, imageKey, scaled);
         }
         return scaled;
     }
 
     /**
-     * Loads a Pokemon image asynchronously.
+     * Loads a Pokemon image asynchronously with {@link ImagePriority#VISIBLE} priority.
      * 
      * @param pokemonId the Pokemon ID
      * @return CompletableFuture that resolves to ImageIcon or null
      */
     public static CompletableFuture<ImageIcon> loadAsync(String pokemonId) {
-        return CompletableFuture.supplyAsync(() -> {
+        return loadAsync(pokemonId, ImagePriority.VISIBLE);
+    }
+
+    /**
+     * Loads a Pokemon image asynchronously in the given scheduling class.
+     * 
+     * @param pokemonId the Pokemon ID
+     * @param priority the scheduling class of the load
+     * @return CompletableFuture that resolves to ImageIcon or null
+     */
+    public static CompletableFuture<ImageIcon> loadAsync(String pokemonId, ImagePriority priority) {
+        return schedule(pokemonId, priority, () -> {
             try {
-                return load(pokemonId);
+                return loadOriginal(pokemonId, priority != ImagePriority.PRELOAD);
             } catch (Exception e) {
                 logError("Failed to load image for Pokemon #" + pokemonId, e);
                 return null;
             }
-        }, EXECUTOR);
+        });
     }
 
     /**
-     * Loads and scales a Pokemon image asynchronously.
+     * Loads and scales a Pokemon image asynchronously with {@link ImagePriority#VISIBLE} priority.
      * 
      * @param pokemonId the Pokemon ID
      * @param targetSize the desired image size
      * @return CompletableFuture that resolves to scaled ImageIcon or null
      */
     public static CompletableFuture<ImageIcon> loadScaledAsync(String pokemonId, int targetSize) {
-        return CompletableFuture.supplyAsync(() -> {
+        return loadScaledAsync(pokemonId, targetSize, ImagePriority.VISIBLE);
+    }
+
+    /**
+     * Loads and scales a Pokemon image asynchronously in the given scheduling class.
+     * 
+     * @param pokemonId the Pokemon ID
+     * @param targetSize the desired image size
+     * @param priority the scheduling class of the load
+     * @return CompletableFuture that resolves to scaled ImageIcon or null
+     */
+    public static CompletableFuture<ImageIcon> loadScaledAsync(String pokemonId, int targetSize,
+                                                               ImagePriority priority) {
+        return submitScaledLoad(pokemonId, targetSize, priority).exceptionally(error -> null);
+    }
+
+    /**
+     * Makes sure the full-size image of a Pokemon is in the disk cache, downloading
+     * it if needed, without decoding it. Runs in the {@link ImagePriority#PRELOAD} class.
+     * 
+     * @param pokemonId the Pokemon ID
+     * @return CompletableFuture resolving to true once the image is cached or known not
+     *         to exist, or to false if it could not be fetched (e.g. while offline)
+     */
+    public static CompletableFuture<Boolean> prefetch(String pokemonId) {
+        validatePokemonId(pokemonId);
+        return prefetchKeys(pokemonId, List.of(pokemonId));
+    }
+
+    /**
+     * Makes sure the source images a scaled load of the given size would use (one per
+     * active display scale) are in the disk cache, without decoding or scaling them.
+     * Downloads are only checked structurally (PNG signature, IHDR and IEND), so bulk
+     * prefetching is limited by the network rather than the CPU.
+     * Runs in the {@link ImagePriority#PRELOAD} class.
+     * 
+     * @param pokemonId the Pokemon ID
+     * @param targetSize the display size in logical pixels
+     * @return CompletableFuture resolving to true once all images are cached or known not
+     *         to exist, or to false if one could not be fetched (e.g. while offline)
+     */
+    public static CompletableFuture<Boolean> prefetch(String pokemonId, int targetSize) {
+        validatePokemonId(pokemonId);
+        Set<String> imageKeys = new LinkedHashSet<>();
+        for (double scale : DisplayScales.getActiveScales()) {
+            imageKeys.add(SpriteSources.imageKeyFor(pokemonId, DisplayScales.toPixels(targetSize, scale)));
+        }
+        return prefetchKeys(pokemonId, imageKeys);
+    }
+
+    /**
+     * Queues a prefetch of each image key. Resolves to true once every image is
+     * cached or known to be missing.
+     */
+    private static CompletableFuture<Boolean> prefetchKeys(String pokemonId, Collection<String> imageKeys) {
+        List<CompletableFuture<ImageIcon>> prefetches = new ArrayList<>();
+        for (String imageKey : imageKeys) {
+            prefetches.add(schedule("prefetch:" + imageKey, ImagePriority.PRELOAD, () -> {
+                try {
+                    prefetchImage(imageKey);
+                } catch (Exception e) {
+                    logError("Failed to prefetch image for Pokemon #" + pokemonId, e);
+                }
+                return null;
+            }));
+        }
+        return CompletableFuture.allOf(prefetches.toArray(new CompletableFuture<?>[0]))
+            .handle((result, error) -> imageKeys.stream().allMatch(ImageCache::isSettled));
+    }
+
+    /**
+     * Returns true if an image is on disk, about to be written, or known to be missing.
+     */
+    private static boolean isSettled(String imageKey) {
+        CacheManifest.State state = MANIFEST.getState(imageKey);
+        return state == CacheManifest.State.PRESENT || state == CacheManifest.State.MISSING
+            || PENDING_WRITES.containsKey(imageKey);
+    }
+
+    /**
+     * Downloads an image into the disk cache unless it is already there or known to
+     * be missing. If the image is being downloaded by a load, waits for that download.
+     */
+    private static void prefetchImage(String imageKey) throws Exception {
+        CacheManifest.State state = MANIFEST.getState(imageKey);
+        if (state == CacheManifest.State.MISSING) {
+            METRICS.placeholderHits.increment();
+            return;
+        }
+        if (state == CacheManifest.State.PRESENT || PENDING_WRITES.containsKey(imageKey)) {
+            return;
+        }
+        
+        downloadOnce(imageKey, () -> {
+            METRICS.diskMisses.increment();
+            MANIFEST.markInProgress(imageKey);
+            if (!downloadWithoutDecoding(imageKey)) {
+                recordDownloadFailure(imageKey);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Binds a component to a scaled Pokemon image. The load is queued while the
+     * component is showing and cancelled when it is removed or hidden; binding the
+     * component again replaces (and cancels) the previous load. The callback runs on
+     * the Event Dispatch Thread, and only if the binding is still current, with the
+     * icon (null if no image exists) or the failure.
+     * 
+     * @param component the component whose lifecycle controls the load
+     * @param pokemonId the Pokemon ID
+     * @param targetSize the desired image size
+     * @param priority the initial scheduling class of the load
+     * @param callback receives the icon or the failure on the Event Dispatch Thread
+     * @return generation token identifying this binding
+     */
+    public static long bind(JComponent component, String pokemonId, int targetSize,
+                            ImagePriority priority, BiConsumer<ImageIcon, Throwable> callback) {
+        validatePokemonId(pokemonId);
+        return ImageBinder.bind(component, pokemonId, targetSize, priority, callback);
+    }
+
+    /**
+     * Removes a component's image binding and cancels its pending load.
+     * 
+     * @param component the bound component
+     */
+    public static void unbind(JComponent component) {
+        ImageBinder.unbind(component);
+    }
+
+    /**
+     * Moves a bound component's pending load to another scheduling class,
+     * e.g. when it scrolls into or out of view. Must be called on the Event Dispatch Thread.
+     * 
+     * @param component the bound component
+     * @param priority the new scheduling class
+     */
+    public static void setBindingPriority(JComponent component, ImagePriority priority) {
+        ImageBinder.setPriority(component, priority);
+    }
+
+    /**
+     * Returns the generation token of a component's current image binding.
+     * 
+     * @param component the component
+     * @return the generation token, or 0 if the component is not bound
+     */
+    public static long getBindingGeneration(JComponent component) {
+        return ImageBinder.getGeneration(component);
+    }
+
+    /**
+     * Queues a scaled image load, registering the caller as one of its waiters.
+     * Failures are logged and complete the future exceptionally.
+     */
+    static CompletableFuture<ImageIcon> submitScaledLoad(String pokemonId, int targetSize, ImagePriority priority) {
+        return schedule(createScaledCacheKey(pokemonId, targetSize), priority, () -> {
             try {
                 return loadScaled(pokemonId, targetSize);
             } catch (Exception e) {
                 logError("Failed to load scaled image for Pokemon #" + pokemonId, e);
-                return null;
+                throw e;
             }
-        }, EXECUTOR);
+        });
+    }
+
+    /**
+     * Withdraws one waiter from a queued scaled image load; the load is dropped
+     * once nobody waits for it any more.
+     */
+    static void cancelScaledLoad(String pokemonId, int targetSize) {
+        SCHEDULER.cancel(createScaledCacheKey(pokemonId, targetSize));
+    }
+
+    /**
+     * Moves a queued scaled image load to another scheduling class,
+     * e.g. when its card scrolls into or out of view.
+     * 
+     * @param pokemonId the Pokemon ID
+     * @param targetSize the image size of the load
+     * @param priority the new scheduling class
+     */
+    public static void reprioritize(String pokemonId, int targetSize, ImagePriority priority) {
+        SCHEDULER.reprioritize(createScaledCacheKey(pokemonId, targetSize), priority);
     }
 
     /**
-     * Shuts down the executor service gracefully.
-     * Should be called when the application is closing.
+     * Shuts down the executor services gracefully, waiting at most
+     * SHUTDOWN_TIMEOUT_MS in total for running loads and pending cache writes.
+     * Should be called when the application is closing, off the Event Dispatch Thread.
      */
     public static void shutdown() {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SHUTDOWN_TIMEOUT_MS);
         try {
-            EXECUTOR.shutdown();
-            if (!EXECUTOR.awaitTermination(5, TimeUnit.SECONDS)) {
-                EXECUTOR.shutdownNow();
-            }
+            MAINTENANCE_EXECUTOR.shutdownNow();
+            SCHEDULER.shutdown(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            CPU_LANE.shutdown(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            // Let pending cache files reach the disk
+            PERSIST_EXECUTOR.shutdown();
+            PERSIST_EXECUTOR.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
         } catch (InterruptedException e) {
-            EXECUTOR.shutdownNow();
             Thread.currentThread().interrupt();
+        } finally {
+            for (ThumbnailAtlas atlas : THUMBNAIL_ATLASES.values()) {
+                atlas.close();
+            }
+            MANIFEST.close();
         }
     }
 
     /**
-     * Clears the scaled image cache to free memory.
+     * Clears the in-memory image caches to free memory.
      */
     public static void clearCache() {
         SCALED_CACHE.clear();
+        FULL_CACHE.clear();
+        ENCODED_CACHE.clear();
     }
 
     /**
@@ -180,119 +615,720 @@ public final class ImageCache {
     }
 
     /**
-     * Clears placeholder markers, allowing retry of image downloads.
+     * Returns a human-readable summary of the scaled, full-resolution and encoded image cache
+     * statistics (memory use, hit rate, evictions and rejected admissions), and of the
+     * lookups that missed every in-memory tier.
+     * 
+     * @return cache statistics summary
+     */
+    public static String getCacheStatistics() {
+        return "scaled: " + SCALED_CACHE.stats() + ", full: " + FULL_CACHE.stats()
+             + ", encoded: " + ENCODED_CACHE.stats() + ", memory misses: " + METRICS.memoryMisses.sum();
+    }
+
+    /**
+     * Returns a snapshot of the image cache statistics: hits per tier, downloads,
+     * decode and scale timings, evictions and the current load queue depths.
+     * Also logged periodically; set {@code pokedex.cache.stats.interval.s} to 0 to disable.
+     *
+     * @return statistics snapshot
+     */
+    public static ImageCacheStats getStatistics() {
+        WeightedCache.Stats scaled = SCALED_CACHE.stats();
+        WeightedCache.Stats full = FULL_CACHE.stats();
+        WeightedCache.Stats encoded = ENCODED_CACHE.stats();
+        return new ImageCacheStats(
+            scaled.hits + full.hits + encoded.hits,
+            METRICS.memoryMisses.sum(),
+            METRICS.atlasHits.sum(),
+            METRICS.diskHits.sum(),
+            METRICS.diskMisses.sum(),
+            METRICS.placeholderHits.sum(),
+            METRICS.downloads.sum(),
+            METRICS.downloadedBytes.sum(),
+            METRICS.downloadFailures.sum(),
+            METRICS.decode.count.sum(),
+            METRICS.decode.totalNanos.sum(),
+            METRICS.scale.count.sum(),
+            METRICS.scale.totalNanos.sum(),
+            scaled.evictions + full.evictions + encoded.evictions,
+            METRICS.diskEvictions.sum(),
+            METRICS.repairs.sum(),
+            SCHEDULER.getQueueDepths());
+    }
+
+    /**
+     * Returns how many image downloads may currently run at once. The limit adapts
+     * to the sprite server's latency and errors; bulk loads such as the background
+     * preload size their window by it.
+     *
+     * @return the current download concurrency limit
+     */
+    public static int getDownloadConcurrency() {
+        return SpriteFetcher.getConcurrencyLimit(SpriteSources.host(0));
+    }
+
+    /**
+     * Clears missing-image records, allowing retry of image downloads.
      * Useful if the API might have been updated with new images.
+     * Missing images are also re-checked automatically after a retry interval.
      */
     public static void clearPlaceholderMarkers() {
-        File[] files = CACHE_DIR.listFiles((dir, name) -> name.endsWith(PLACEHOLDER_MARKER));
-        if (files != null) {
-            for (File file : files) {
-                file.delete();
+        MANIFEST.clearMissing();
+    }
+
+    /**
+     * Queues a load on the priority scheduler. Each caller gets its own dependent
+     * future, so cancelling it does not affect others waiting for the same image.
+     */
+    private static CompletableFuture<ImageIcon> schedule(String key, ImagePriority priority,
+                                                         Callable<ImageIcon> loader) {
+        try {
+            return SCHEDULER.submit(key, priority, loader).copy();
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * Runs a load so that concurrent callers with the same key share one execution.
+     * The first caller performs the load; the others wait for and receive its result
+     * without holding an I/O slot, so the waiting does not block other downloads.
+     */
+    private static ImageIcon loadOnce(Map<String, CompletableFuture<ImageIcon>> inFlight,
+                                      String key, Callable<ImageIcon> loader) throws Exception {
+        CompletableFuture<ImageIcon> flight = new CompletableFuture<>();
+        CompletableFuture<ImageIcon> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return SCHEDULER.awaitOffSlot(() -> awaitLoad(existing));
+        }
+
+        try {
+            ImageIcon result = loader.call();
+            flight.complete(result);
+            return result;
+        } catch (Exception e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Runs a download of an image unless one is already in progress, in which case
+     * waits for that one instead, without holding an I/O slot. Afterwards the image is
+     * in the pending writes or on disk, or recorded as missing.
+     *
+     * @return true if this call performed the download
+     */
+    private static boolean downloadOnce(String imageKey, Callable<Void> download) throws Exception {
+        CompletableFuture<Void> flight = new CompletableFuture<>();
+        CompletableFuture<Void> existing = DOWNLOADS_IN_FLIGHT.putIfAbsent(imageKey, flight);
+        if (existing != null) {
+            // Failures are logged by the downloading thread; the caller checks the manifest
+            SCHEDULER.awaitOffSlot(() -> existing.handle((result, error) -> null).get());
+            return false;
+        }
+        
+        try {
+            download.call();
+            return true;
+        } finally {
+            DOWNLOADS_IN_FLIGHT.remove(imageKey, flight);
+            flight.complete(null);
+        }
+    }
+
+    /**
+     * Waits for a load started by another thread, rethrowing its original failure.
+     */
+    private static ImageIcon awaitLoad(CompletableFuture<ImageIcon> flight) throws Exception {
+        try {
+            return flight.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : new Exception(cause);
+        }
+    }
+
+    /**
+     * Creates the heap monitor that sheds the memory tiers when the heap fills up.
+     */
+    private static MemoryPressureMonitor createMemoryMonitor() {
+        MemoryPressureMonitor monitor = new MemoryPressureMonitor(MEMORY_PRESSURE_THRESHOLD);
+        monitor.addListener(ImageCache::shedMemory);
+        return monitor;
+    }
+
+    /**
+     * Drops all full-resolution images and half of the scaled and encoded ones.
+     * Full-size images are cheap to decode again from disk, while thumbnails fill
+     * the visible grid.
+     */
+    private static void shedMemory() {
+        int evicted = FULL_CACHE.trimTo(0);
+        evicted += SCALED_CACHE.trimTo(SCALED_CACHE.weight() / 2);
+        evicted += ENCODED_CACHE.trimTo(ENCODED_CACHE.weight() / 2);
+        System.err.println("Image cache: heap under pressure, released " + evicted + " images");
+    }
+
+    /**
+     * Writes the current statistics to the log.
+     */
+    private static void logStatistics() {
+        try {
+            System.err.println("Image cache: " + getStatistics());
+        } catch (RuntimeException e) {
+            logError("Statistics logging failed", e);
+        }
+    }
+
+    /**
+     * Runs one disk quota sweep, logging how many images were evicted.
+     */
+    private static void enforceDiskQuota() {
+        try {
+            int evicted = EVICTOR.evictIfOverQuota();
+            METRICS.diskEvictions.add(evicted);
+            if (evicted > 0) {
+                System.err.println("Image cache: evicted " + evicted + " least recently used images");
             }
+        } catch (RuntimeException e) {
+            logError("Disk quota enforcement failed", e);
+        }
+    }
+
+    /**
+     * Returns the atlas for grid thumbnails of the given pixel size, opening it on first use.
+     * Returns null for other images, or if the atlas cannot be opened (then thumbnails
+     * are decoded and scaled instead).
+     */
+    private static ThumbnailAtlas getThumbnailAtlas(int targetSize, int pixelSize) {
+        if (targetSize != UIConstants.Sizes.IMAGE_THUMBNAIL || UNAVAILABLE_ATLAS_SIZES.contains(pixelSize)) {
+            return null;
+        }
+        return THUMBNAIL_ATLASES.computeIfAbsent(pixelSize, ImageCache::openThumbnailAtlas);
+    }
+
+    /**
+     * Opens the thumbnail atlas of one pixel size, remembering sizes that failed.
+     */
+    private static ThumbnailAtlas openThumbnailAtlas(int pixelSize) {
+        try {
+            return new ThumbnailAtlas(CACHE_DIR, pixelSize);
+        } catch (IOException e) {
+            UNAVAILABLE_ATLAS_SIZES.add(pixelSize);
+            logError("Thumbnail atlas disabled for " + pixelSize + "px thumbnails", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the thumbnail stored in the atlas, converted to the screen's native format.
+     */
+    private static ImageIcon loadFromAtlas(ThumbnailAtlas atlas, String imageKey) {
+        if (atlas == null) {
+            return null;
+        }
+        BufferedImage tile = atlas.get(imageKey);
+        return tile != null ? new ImageIcon(ImageScaler.toCompatibleImage(tile)) : null;
+    }
+
+    /**
+     * Adds a freshly scaled thumbnail to the atlas on the writer thread.
+     */
+    private static void storeInAtlasAsync(ThumbnailAtlas atlas, String imageKey, ImageIcon scaled) {
+        if (atlas == null || scaled.getIconWidth() != atlas.getTileSize()) {
+            return;
+        }
+        try {
+            PERSIST_EXECUTOR.execute(() -> atlas.put(imageKey, (BufferedImage) scaled.getImage()));
+        } catch (RejectedExecutionException e) {
+            // Shutting down - the thumbnail will be generated again next time
         }
     }
 
     /**
-     * Initializes the cache directory if it doesn't exist.
+     * Initializes the cache directory if it doesn't exist, removes partial
+     * downloads left behind by an interrupted session and takes over the images
+     * cached in the old location.
      */
     private static void initializeCacheDirectory() {
         try {
             if (!CACHE_DIR.exists() && !CACHE_DIR.mkdirs()) {
                 System.err.println("Warning: Could not create cache directory: " + CACHE_DIR.getPath());
             }
+            
+            File[] partialFiles = CACHE_DIR.listFiles((dir, name) -> name.endsWith(PARTIAL_SUFFIX));
+            if (partialFiles != null) {
+                for (File file : partialFiles) {
+                    file.delete();
+                }
+            }
+            CacheLocation.migrateLegacyImages(CACHE_DIR);
         } catch (SecurityException e) {
             ErrorHandler.showError(null, e, "tworzenie katalogu cache");
         }
     }
 
+    /**
+     * Downloads a Pokemon image and returns it decoded, marking the Pokemon
+     * as having no image if every source fails.
+     */
+    private static ImageIcon downloadAndDecode(String imageKey) {
+        MANIFEST.markInProgress(imageKey);
+        BufferedImage image = downloadImage(imageKey);
+        if (image == null) {
+            recordDownloadFailure(imageKey);
+            return null;
+        }
+        return new ImageIcon(image);
+    }
+
+    /**
+     * Records that no source delivered an image. It is remembered as missing only if
+     * every source answered 404; after network or server errors it stays absent, so
+     * the next load tries again instead of showing the placeholder for days.
+     */
+    private static void recordDownloadFailure(String imageKey) {
+        for (int source : SpriteSources.preferenceOrder(imageKey)) {
+            if (!MANIFEST.isSourceMissing(imageKey, source)) {
+                MANIFEST.remove(imageKey);
+                return;
+            }
+        }
+        MANIFEST.markMissing(imageKey);
+    }
+
     /**
      * Downloads a Pokemon image from available URLs.
-     * Returns true if successful, false if all URLs failed.
-     * Now uses try-with-resources for proper stream handling.
+     * The bytes are buffered in memory and decoded once; the decoded image is
+     * returned to the caller while the bytes are written to the disk cache in the
+     * background. Returns null if all URLs failed.
+     */
+    private static BufferedImage downloadImage(String imageKey) {
+        return download(imageKey, imageBytes -> {
+            BufferedImage image = decodeImage(imageBytes);
+            if (image != null) {
+                storeEncoded(imageKey, imageBytes);
+            }
+            return image;
+        });
+    }
+
+    /**
+     * Downloads an image into the disk cache without decoding it, accepting it after
+     * the structural PNG checks. Returns false if all URLs failed.
+     */
+    private static boolean downloadWithoutDecoding(String imageKey) {
+        return download(imageKey, imageBytes ->
+            PngFormat.hasValidHeader(imageBytes) && PngFormat.isComplete(imageBytes) ? Boolean.TRUE : null) != null;
+    }
+
+    /**
+     * Checks downloaded bytes before they are cached.
+     *
+     * @param <T> the result of an accepted download
+     */
+    @FunctionalInterface
+    private interface DownloadCheck<T> {
+        /**
+         * @return the result for accepted bytes, or null to reject them
+         */
+        T accept(byte[] imageBytes) throws Exception;
+    }
+
+    /**
+     * Downloads an image from the available URLs and writes the first accepted
+     * response to the disk cache in the background.
+     * The source that served the image last time is tried first and sources known
+     * not to have it are skipped; both are remembered in the manifest.
+     * Returns null if all URLs failed.
      */
-    private static boolean downloadImage(String pokemonId, File destination) {
-        for (String urlTemplate : SPRITE_URLS) {
+    private static <T> T download(String imageKey, DownloadCheck<T> check) {
+        for (int source : getSourceOrder(imageKey)) {
+            String imageUrl = SpriteSources.url(source, SpriteSources.pokemonIdOf(imageKey));
             try {
-                URL imageUrl = new URL(String.format(urlTemplate, pokemonId));
+                SpriteFetcher.Response response;
+                try {
+                    response = SpriteFetcher.fetch(new URL(imageUrl));
+                } catch (IOException e) {
+                    METRICS.downloadFailures.increment();
+                    throw e;
+                }
+                byte[] imageBytes = response.body;
+                METRICS.downloads.increment();
+                METRICS.downloadedBytes.add(imageBytes.length);
                 
-                // Using try-with-resources for automatic stream closure
-                try (InputStream inputStream = imageUrl.openStream();
-                     FileOutputStream outputStream = new FileOutputStream(destination)) {
-                    
-                    // Read image data
-                    byte[] buffer = new byte[8192];
-                    int bytesRead;
-                    while ((bytesRead = inputStream.read(buffer)) != -1) {
-                        outputStream.write(buffer, 0, bytesRead);
-                    }
-                    
-                    // Verify the downloaded file is a valid image
-                    BufferedImage testImage = ImageIO.read(destination);
-                    if (testImage != null) {
-                        return true; // Success
-                    } else {
-                        destination.delete(); // Remove invalid file
-                    }
+                // Verify the downloaded bytes are a valid image before caching them
+                T result = check.accept(imageBytes);
+                if (result != null) {
+                    MANIFEST.recordSource(imageKey, source);
+                    MANIFEST.setValidators(imageKey, response.etag, response.lastModified);
+                    persistAsync(imageKey, imageBytes);
+                    return result; // Success
                 }
+            } catch (FileNotFoundException e) {
+                // HTTP 404 - this source does not have the image, skip it from now on
+                MANIFEST.recordSourceMissing(imageKey, source);
+                logError("No image at: " + imageUrl, e);
             } catch (Exception e) {
                 // Log but continue to next URL
-                logError("Failed to download from: " + String.format(urlTemplate, pokemonId), e);
+                logError("Failed to download from: " + imageUrl, e);
             }
         }
         
         // All URLs failed
-        return false;
+        return null;
+    }
+
+    /**
+     * Returns the sprite sources to try for an image: the one that served it last,
+     * then the others in the image's order of preference, without those known not
+     * to have it. Falls back to all of them if every one is recorded as missing.
+     */
+    private static List<Integer> getSourceOrder(String imageKey) {
+        int[] candidates = SpriteSources.preferenceOrder(imageKey);
+        List<Integer> order = new ArrayList<>(candidates.length);
+        int preferred = MANIFEST.getPreferredSource(imageKey);
+        if (preferred >= 0 && preferred < SpriteSources.count()) {
+            order.add(preferred);
+        }
+        for (int source : candidates) {
+            if (source != preferred && !MANIFEST.isSourceMissing(imageKey, source)) {
+                order.add(source);
+            }
+        }
+        if (order.isEmpty()) {
+            for (int source : candidates) {
+                order.add(source);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Decodes image bytes on the CPU lane, returning null if they are not a readable image.
+     */
+    private static BufferedImage decodeImage(byte[] imageBytes) throws Exception {
+        return onCpuLane(() -> METRICS.decode.time(() -> ImageIO.read(new ByteArrayInputStream(imageBytes))));
+    }
+
+    /**
+     * Hands CPU-bound work to the CPU lane and waits for it. A calling load gives its
+     * I/O slot to the next queued load until the work is done, so slow decoding or
+     * scaling never holds back downloads.
+     */
+    private static <T> T onCpuLane(Callable<T> work) throws Exception {
+        return SCHEDULER.awaitOffSlot(() -> CPU_LANE.call(work));
     }
 
     /**
-     * Creates a placeholder marker file to indicate that this Pokemon has no available image.
+     * Writes downloaded bytes to the disk cache on the writer thread.
+     * Until the write completes, loads are served from the pending bytes.
      */
-    private static void createPlaceholderMarker(File markerFile) {
+    private static void persistAsync(String imageKey, byte[] imageBytes) {
+        PENDING_WRITES.put(imageKey, imageBytes);
         try {
-            markerFile.createNewFile();
-        } catch (Exception e) {
-            logError("Failed to create placeholder marker: " + markerFile.getName(), e);
+            PERSIST_EXECUTOR.execute(() -> {
+                try {
+                    writeCacheFile(getCacheFile(imageKey), imageBytes);
+                    MANIFEST.setContentHash(imageKey, imageBytes.length, CacheVerifier.checksum(imageBytes));
+                    MANIFEST.markPresent(imageKey);
+                } catch (IOException e) {
+                    MANIFEST.remove(imageKey);
+                    logError("Failed to write cache file for Pokemon #" + imageKey, e);
+                } finally {
+                    PENDING_WRITES.remove(imageKey, imageBytes);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down - the image will simply be downloaded again next time
+            PENDING_WRITES.remove(imageKey, imageBytes);
+        }
+    }
+
+    /**
+     * Writes bytes to a temporary file and atomically renames it into place,
+     * so readers never observe a partially written file.
+     */
+    private static void writeCacheFile(File destination, byte[] imageBytes) throws IOException {
+        Path partialFile = Files.createTempFile(CACHE_DIR.toPath(), destination.getName() + "-", PARTIAL_SUFFIX);
+        try {
+            Files.write(partialFile, imageBytes);
+            publishFile(partialFile, destination.toPath());
+        } finally {
+            deleteQuietly(partialFile);
+        }
+    }
+
+    /**
+     * Moves a completed file into its final location, atomically where supported.
+     */
+    private static void publishFile(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Deletes a file if it still exists, ignoring failures.
+     */
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logError("Failed to delete temporary file: " + file.getFileName(), e);
         }
     }
 
     /**
      * Loads an ImageIcon from a cached file with error recovery.
+     * The file is read on the calling I/O thread, checked against its recorded
+     * content hash and decoded on the CPU lane. A corrupted or vanished file is
+     * deleted and repaired in the background; this load fails instead of waiting
+     * for the download.
      */
-    private static ImageIcon loadImageFromFile(File file, String pokemonId) throws Exception {
+    private static ImageIcon loadImageFromFile(File file, String imageKey) throws Exception {
+        BufferedImage image;
         try {
-            BufferedImage image = ImageIO.read(file);
-            if (image == null) {
-                // File might be corrupted, try re-downloading
-                file.delete();
-                if (!downloadImage(pokemonId, file)) {
-                    // Re-download failed, mark as placeholder
-                    createPlaceholderMarker(getPlaceholderMarkerFile(pokemonId));
+            byte[] imageBytes = Files.readAllBytes(file.toPath());
+            boolean intact = MANIFEST.matchesContentHash(
+                imageKey, imageBytes.length, CacheVerifier.checksum(imageBytes));
+            image = intact ? decodeImage(imageBytes) : null;
+            if (image != null) {
+                METRICS.diskHits.increment();
+                storeEncoded(imageKey, imageBytes);
+            }
+        } catch (IOException e) {
+            // File was removed or is unreadable behind the manifest's back
+            image = null;
+        }
+        
+        if (image == null) {
+            file.delete();
+            MANIFEST.remove(imageKey);
+            scheduleRepair(imageKey);
+            throw new IOException("Cached image is corrupted, repair scheduled");
+        }
+        
+        return new ImageIcon(image);
+    }
+
+    /**
+     * Downloads a deleted corrupted image again as background work. Uses its own
+     * scheduler key, so it never joins the load that discovered the corruption.
+     */
+    private static void scheduleRepair(String imageKey) {
+        METRICS.repairs.increment();
+        schedule("repair:" + imageKey, ImagePriority.PRELOAD, () -> {
+            if (MANIFEST.getState(imageKey) == CacheManifest.State.ABSENT) {
+                downloadOnce(imageKey, () -> {
+                    downloadAndDecode(imageKey);
                     return null;
-                }
-                image = ImageIO.read(file);
+                });
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Startup check comparing cached file sizes with the manifest.
+     */
+    private static void checkCacheSizes() {
+        try {
+            int corrupted = VERIFIER.checkSizes();
+            if (corrupted > 0) {
+                System.err.println("Image cache: " + corrupted + " damaged images found, repairing");
+            }
+        } catch (RuntimeException e) {
+            logError("Cache size check failed", e);
+        }
+    }
+
+    /**
+     * Verifies a batch of cached files while no image loads are pending.
+     */
+    private static void verifyWhenIdle() {
+        if (!SCHEDULER.isIdle()) {
+            return;
+        }
+        try {
+            int corrupted = VERIFIER.verifyBatch(VERIFY_BATCH_SIZE);
+            if (corrupted > 0) {
+                System.err.println("Image cache: " + corrupted + " corrupted images found, repairing");
+            }
+        } catch (RuntimeException e) {
+            logError("Cache verification failed", e);
+        }
+    }
+
+    /**
+     * Queues revalidation of the least recently checked cached files while no image
+     * loads are pending. The batch size and interval cap the request rate.
+     */
+    private static void revalidateWhenIdle() {
+        if (!SCHEDULER.isIdle()) {
+            return;
+        }
+        try {
+            long checkedBefore = System.currentTimeMillis() - REVALIDATE_AFTER_MS;
+            for (String imageKey : MANIFEST.getRevalidationCandidates(checkedBefore, REVALIDATE_BATCH_SIZE)) {
+                schedule("revalidate:" + imageKey, ImagePriority.PRELOAD, () -> {
+                    revalidate(imageKey, checkedBefore);
+                    return null;
+                });
+            }
+        } catch (RuntimeException e) {
+            logError("Cache revalidation failed", e);
+        }
+    }
+
+    /**
+     * Asks the sprite server whether a cached file changed, using its ETag and
+     * Last-Modified validators, and replaces it only if it did. Files cached before
+     * validators were recorded are fetched once and compared by content hash.
+     * If the server no longer has the image, the file is dropped and the next load
+     * looks for it again.
+     */
+    private static void revalidate(String imageKey, long checkedBefore) {
+        if (MANIFEST.getState(imageKey) != CacheManifest.State.PRESENT || PENDING_WRITES.containsKey(imageKey)) {
+            return;
+        }
+        CacheManifest.Validators validators = MANIFEST.getValidators(imageKey);
+        File file = getCacheFile(imageKey);
+        if (validators == null && file.lastModified() >= checkedBefore) {
+            // No validators yet, but downloaded recently enough to be trusted until the next sweep
+            MANIFEST.markValidated(imageKey, file.lastModified());
+            return;
+        }
+        
+        int preferred = MANIFEST.getPreferredSource(imageKey);
+        List<Integer> sources = preferred >= 0 ? List.of(preferred) : getSourceOrder(imageKey);
+        for (int source : sources) {
+            String imageUrl = SpriteSources.url(source, SpriteSources.pokemonIdOf(imageKey));
+            SpriteFetcher.Response response;
+            try {
+                response = validators != null && preferred >= 0
+                    ? SpriteFetcher.fetchIfChanged(new URL(imageUrl), validators.etag, validators.lastModified)
+                    : SpriteFetcher.fetch(new URL(imageUrl));
+            } catch (FileNotFoundException e) {
+                MANIFEST.recordSourceMissing(imageKey, source);
+                continue;
+            } catch (IOException e) {
+                // Try again in a later sweep
+                logError("Failed to revalidate: " + imageUrl, e);
+                return;
             }
             
-            if (image == null) {
-                throw new Exception("Image file is corrupted and re-download failed");
+            if (response.isNotModified()) {
+                MANIFEST.markValidated(imageKey, System.currentTimeMillis());
+                return;
             }
             
-            return new ImageIcon(image);
-        } catch (Exception e) {
-            throw new Exception("Failed to load image for Pokemon #" + pokemonId, e);
+            byte[] imageBytes = response.body;
+            METRICS.downloads.increment();
+            METRICS.downloadedBytes.add(imageBytes.length);
+            MANIFEST.recordSource(imageKey, source);
+            if (MANIFEST.hasContentHash(imageKey)
+                    && MANIFEST.matchesContentHash(imageKey, imageBytes.length, CacheVerifier.checksum(imageBytes))) {
+                // Same content - only the validators were unknown
+                MANIFEST.setValidators(imageKey, response.etag, response.lastModified);
+                return;
+            }
+            if (!PngFormat.hasValidHeader(imageBytes) || !PngFormat.isComplete(imageBytes)) {
+                System.err.println("Image cache: ignoring incomplete update of " + imageUrl);
+                return;
+            }
+            
+            MANIFEST.setValidators(imageKey, response.etag, response.lastModified);
+            persistAsync(imageKey, imageBytes);
+            invalidate(imageKey);
+            System.err.println("Image cache: refreshed changed image " + imageKey);
+            return;
+        }
+        
+        // No source has the image any more
+        invalidate(imageKey);
+        MANIFEST.remove(imageKey);
+        deleteQuietly(file.toPath());
+    }
+
+    /**
+     * Drops every in-memory and atlas copy of an image, so the next load reads the current file.
+     */
+    private static void invalidate(String imageKey) {
+        FULL_CACHE.remove(imageKey);
+        ENCODED_CACHE.remove(imageKey);
+        // Scaled variants of both source kinds share the Pokemon ID prefix
+        String scaledKeyPrefix = SpriteSources.pokemonIdOf(imageKey) + "_";
+        SCALED_CACHE.removeIf(cacheKey -> cacheKey.startsWith(scaledKeyPrefix));
+        for (ThumbnailAtlas atlas : THUMBNAIL_ATLASES.values()) {
+            atlas.remove(imageKey);
+        }
+    }
+
+    /**
+     * Decodes an image from the encoded byte tier, dropping the entry if it
+     * cannot be decoded. Returns null on a miss.
+     */
+    private static ImageIcon loadFromEncodedCache(String imageKey) throws Exception {
+        byte[] imageBytes = ENCODED_CACHE.get(imageKey);
+        if (imageBytes == null) {
+            return null;
+        }
+        
+        BufferedImage image = decodeImage(imageBytes);
+        if (image == null) {
+            ENCODED_CACHE.remove(imageKey);
+            return null;
         }
+        return new ImageIcon(image);
     }
 
     /**
-     * Scales an ImageIcon to the specified size.
+     * Keeps an image's PNG bytes in memory. The array is shared, not copied;
+     * downloaded and read bytes are never modified afterwards.
      */
-    private static ImageIcon scaleImage(ImageIcon original, int targetSize) {
+    private static void storeEncoded(String imageKey, byte[] imageBytes) {
+        ENCODED_CACHE.put(imageKey, imageBytes);
+    }
+
+    /**
+     * Scales an ImageIcon to the specified size on the CPU lane using progressive
+     * bilinear/bicubic downscaling, into a BufferedImage in the screen's native format.
+     */
+    private static ImageIcon scaleImage(ImageIcon original, int targetSize) throws Exception {
         if (original == null) {
             return null;
         }
         
-        Image scaledImage = original.getImage().getScaledInstance(
-            targetSize, targetSize, Image.SCALE_SMOOTH);
-        return new ImageIcon(scaledImage);
+        return onCpuLane(() -> METRICS.scale.time(() -> {
+            BufferedImage source = ImageScaler.toBufferedImage(original.getImage());
+            return new ImageIcon(ImageScaler.toCompatibleImage(ImageScaler.scale(source, targetSize, targetSize)));
+        }));
+    }
+
+    /**
+     * Returns a default memory budget: the given fraction of the maximum heap in
+     * megabytes, at least 1 and at most the cap.
+     */
+    private static long heapShareMb(int heapDivisor, long capMb) {
+        long heapMb = Runtime.getRuntime().maxMemory() / (1024 * 1024);
+        return Math.max(1, Math.min(capMb, heapMb / heapDivisor));
+    }
+
+    /**
+     * Estimates the heap size of an icon's pixels, assuming 4 bytes per ARGB pixel.
+     */
+    private static long estimateIconBytes(ImageIcon icon) {
+        return (long) Math.max(1, icon.getIconWidth()) * Math.max(1, icon.getIconHeight()) * 4;
     }
 
     /**
@@ -303,17 +1339,18 @@ public final class ImageCache {
     }
 
     /**
-     * Returns the cache file for a given Pokemon ID.
+     * Creates a cache key for one display scale variant of a scaled image.
      */
-    private static File getCacheFile(String pokemonId) {
-        return new File(CACHE_DIR, pokemonId + ".png");
+    private static String createVariantCacheKey(String pokemonId, int size, double scale) {
+        String key = createScaledCacheKey(pokemonId, size);
+        return scale == 1.0 ? key : key + "@" + scale + "x";
     }
 
     /**
-     * Returns the placeholder marker file for a given Pokemon ID.
+     * Returns the cache file for a given image key.
      */
-    private static File getPlaceholderMarkerFile(String pokemonId) {
-        return new File(CACHE_DIR, pokemonId + PLACEHOLDER_MARKER);
+    private static File getCacheFile(String imageKey) {
+        return new File(CACHE_DIR, imageKey + ".png");
     }
 
     /**
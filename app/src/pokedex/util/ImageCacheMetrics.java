@@ -0,0 +1,55 @@
+package pokedex.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters and timers recorded by {@link ImageCache}.
+ * Counters use {@link LongAdder}, so recording from many loader threads does not
+ * contend; {@link ImageCache#getStatistics()} combines them with the memory tier
+ * statistics into an {@link ImageCacheStats} snapshot.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class ImageCacheMetrics {
+
+    final LongAdder atlasHits = new LongAdder();
+    final LongAdder memoryMisses = new LongAdder();
+    final LongAdder diskHits = new LongAdder();
+    final LongAdder diskMisses = new LongAdder();
+    final LongAdder placeholderHits = new LongAdder();
+    final LongAdder downloads = new LongAdder();
+    final LongAdder downloadedBytes = new LongAdder();
+    final LongAdder downloadFailures = new LongAdder();
+    final LongAdder diskEvictions = new LongAdder();
+    final LongAdder repairs = new LongAdder();
+    final Timer decode = new Timer();
+    final Timer scale = new Timer();
+
+    /**
+     * Accumulated count and duration of one kind of operation.
+     */
+    static final class Timer {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+
+        /**
+         * Runs the work and records how long it took, whether it succeeded or not.
+         *
+         * @param work the work to time
+         * @param <T>  the result type
+         * @return the work's result
+         * @throws Exception the work's failure
+         */
+        <T> T time(Callable<T> work) throws Exception {
+            long start = System.nanoTime();
+            try {
+                return work.call();
+            } finally {
+                totalNanos.add(System.nanoTime() - start);
+                count.increment();
+            }
+        }
+    }
+}
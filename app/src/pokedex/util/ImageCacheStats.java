@@ -0,0 +1,203 @@
+package pokedex.util;
+
+/**
+ * Immutable snapshot of the image cache statistics, for diagnosing where image
+ * loading time goes: network downloads, disk reads, PNG decoding or scaling.
+ * Counts are cumulative since startup; queue depths are current values.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+public final class ImageCacheStats {
+
+    private final long memoryHits;
+    private final long memoryMisses;
+    private final long atlasHits;
+    private final long diskHits;
+    private final long diskMisses;
+    private final long placeholderHits;
+    private final long downloads;
+    private final long downloadedBytes;
+    private final long downloadFailures;
+    private final long decodeCount;
+    private final long decodeNanos;
+    private final long scaleCount;
+    private final long scaleNanos;
+    private final long memoryEvictions;
+    private final long diskEvictions;
+    private final long repairs;
+    private final int[] queueDepths;
+
+    /**
+     * Creates a snapshot from the raw counters.
+     */
+    ImageCacheStats(long memoryHits, long memoryMisses, long atlasHits, long diskHits, long diskMisses,
+                    long placeholderHits, long downloads, long downloadedBytes, long downloadFailures,
+                    long decodeCount, long decodeNanos, long scaleCount, long scaleNanos,
+                    long memoryEvictions, long diskEvictions, long repairs, int[] queueDepths) {
+        this.memoryHits = memoryHits;
+        this.memoryMisses = memoryMisses;
+        this.atlasHits = atlasHits;
+        this.diskHits = diskHits;
+        this.diskMisses = diskMisses;
+        this.placeholderHits = placeholderHits;
+        this.downloads = downloads;
+        this.downloadedBytes = downloadedBytes;
+        this.downloadFailures = downloadFailures;
+        this.decodeCount = decodeCount;
+        this.decodeNanos = decodeNanos;
+        this.scaleCount = scaleCount;
+        this.scaleNanos = scaleNanos;
+        this.memoryEvictions = memoryEvictions;
+        this.diskEvictions = diskEvictions;
+        this.repairs = repairs;
+        this.queueDepths = queueDepths.clone();
+    }
+
+    /**
+     * @return lookups served by one of the in-memory tiers (scaled, full-size or encoded)
+     */
+    public long getMemoryHits() {
+        return memoryHits;
+    }
+
+    /**
+     * @return lookups that missed every in-memory tier (scaled, atlas, full-size and
+     *         encoded) and went to disk or the network; callers sharing a load in
+     *         progress are counted once
+     */
+    public long getMemoryMisses() {
+        return memoryMisses;
+    }
+
+    /**
+     * @return thumbnails served from the thumbnail atlas
+     */
+    public long getAtlasHits() {
+        return atlasHits;
+    }
+
+    /**
+     * @return images read from the disk cache
+     */
+    public long getDiskHits() {
+        return diskHits;
+    }
+
+    /**
+     * @return images that were not on disk and had to be downloaded
+     */
+    public long getDiskMisses() {
+        return diskMisses;
+    }
+
+    /**
+     * @return requests answered by a known-missing image record without any I/O
+     */
+    public long getPlaceholderHits() {
+        return placeholderHits;
+    }
+
+    /**
+     * @return successful HTTP downloads
+     */
+    public long getDownloads() {
+        return downloads;
+    }
+
+    /**
+     * @return total bytes downloaded
+     */
+    public long getDownloadedBytes() {
+        return downloadedBytes;
+    }
+
+    /**
+     * @return failed download attempts (one per sprite source tried)
+     */
+    public long getDownloadFailures() {
+        return downloadFailures;
+    }
+
+    /**
+     * @return number of PNG decodes
+     */
+    public long getDecodeCount() {
+        return decodeCount;
+    }
+
+    /**
+     * @return average PNG decode time in milliseconds, 0 if nothing was decoded
+     */
+    public double getAverageDecodeMillis() {
+        return averageMillis(decodeNanos, decodeCount);
+    }
+
+    /**
+     * @return number of image scalings
+     */
+    public long getScaleCount() {
+        return scaleCount;
+    }
+
+    /**
+     * @return average scaling time in milliseconds, 0 if nothing was scaled
+     */
+    public double getAverageScaleMillis() {
+        return averageMillis(scaleNanos, scaleCount);
+    }
+
+    /**
+     * @return entries evicted from the in-memory tiers
+     */
+    public long getMemoryEvictions() {
+        return memoryEvictions;
+    }
+
+    /**
+     * @return images evicted from the disk cache to stay within the quota
+     */
+    public long getDiskEvictions() {
+        return diskEvictions;
+    }
+
+    /**
+     * @return corrupted cache files scheduled for repair
+     */
+    public long getRepairs() {
+        return repairs;
+    }
+
+    /**
+     * Returns the number of image loads waiting in a priority class.
+     *
+     * @param priority the priority class
+     * @return current queue depth
+     */
+    public int getQueueDepth(ImagePriority priority) {
+        return queueDepths[priority.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder queues = new StringBuilder();
+        for (ImagePriority priority : ImagePriority.values()) {
+            if (queues.length() > 0) {
+                queues.append(' ');
+            }
+            queues.append(priority.name().toLowerCase()).append('=').append(getQueueDepth(priority));
+        }
+
+        return String.format("memory %d hits, atlas %d hits, %d misses, disk %d hits/%d misses, placeholders %d, "
+                + "downloads %d (%d KB, %d failed), decode %d x %.1f ms, scale %d x %.1f ms, "
+                + "evictions %d memory/%d disk, repairs %d, queued [%s]",
+            memoryHits, atlasHits, memoryMisses, diskHits, diskMisses, placeholderHits,
+            downloads, downloadedBytes / 1024, downloadFailures,
+            decodeCount, getAverageDecodeMillis(), scaleCount, getAverageScaleMillis(),
+            memoryEvictions, diskEvictions, repairs, queues);
+    }
+
+    private static double averageMillis(long totalNanos, long count) {
+        return count == 0 ? 0.0 : totalNanos / 1_000_000.0 / count;
+    }
+}
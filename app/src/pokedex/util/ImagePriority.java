@@ -0,0 +1,21 @@
+package pokedex.util;
+
+/**
+ * Scheduling classes for image loads, from most to least urgent.
+ * The details view is ranked just below on-screen thumbnails: it shows a single
+ * image the user explicitly asked for, while near-viewport thumbnails and the
+ * background preload are speculative.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+public enum ImagePriority {
+    /** Thumbnails currently visible in the grid. */
+    VISIBLE,
+    /** Artwork shown in the details view. */
+    DETAILS,
+    /** Thumbnails just outside the visible part of the grid. */
+    NEAR_VIEWPORT,
+    /** Background preloading of images nobody is looking at yet. */
+    PRELOAD
+}
@@ -37,6 +37,15 @@ public interface LoadingObserver {
      */
     void onLoadingError(String errorMessage);
     
+    /**
+     * Called when the estimate of the remaining time changes.
+     * Only the background preload reports an estimate, so this does nothing by default.
+     * 
+     * @param remainingSeconds the estimated remaining time in seconds, or -1 if unknown
+     */
+    default void onEtaUpdate(long remainingSeconds) {
+    }
+    
     /**
      * Called to show or hide the progress bar.
      * 
@@ -51,6 +51,13 @@ public interface LoadingSubject {
      */
     void notifyLoadingError(String errorMessage);
     
+    /**
+     * Notifies all observers of a new estimate of the remaining time.
+     * 
+     * @param remainingSeconds the estimated remaining time in seconds, or -1 if unknown
+     */
+    void notifyEtaUpdate(long remainingSeconds);
+    
     /**
      * Notifies all observers of progress bar visibility change.
      * 
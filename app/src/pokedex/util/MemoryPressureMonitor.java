@@ -0,0 +1,92 @@
+package pokedex.util;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryNotificationInfo;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Watches the long-lived heap pools through {@link MemoryPoolMXBean} thresholds and
+ * tells caches to shed memory before the garbage collector comes under pressure.
+ * Only the collection usage threshold is armed: it fires when a collection could not
+ * bring a pool back below the configured fraction. Plain usage is not watched, as it
+ * includes garbage not collected yet and routinely passes the threshold between
+ * collections of a pool such as the old generation. Listeners run on the JMX
+ * notification thread and must be quick.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class MemoryPressureMonitor {
+
+    private final List<MemoryPoolMXBean> pools = new ArrayList<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Arms the collection usage thresholds of all heap pools that support them.
+     *
+     * @param thresholdFraction fraction of a pool's maximum size at which pressure is signalled
+     */
+    MemoryPressureMonitor(double thresholdFraction) {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            long max = pool.getUsage().getMax();
+            if (pool.getType() != MemoryType.HEAP || max <= 0 || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+
+            pool.setCollectionUsageThreshold((long) (max * thresholdFraction));
+            pools.add(pool);
+        }
+
+        NotificationListener notificationListener = this::handleNotification;
+        ((NotificationEmitter) ManagementFactory.getMemoryMXBean())
+            .addNotificationListener(notificationListener, null, null);
+    }
+
+    /**
+     * Registers an action that frees memory when pressure is signalled.
+     *
+     * @param listener the action to run
+     */
+    void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Checks whether any watched pool was above its threshold after its most recent
+     * collection. Caches use this to stop admitting large entries until memory is freed.
+     *
+     * @return true if the heap is under pressure
+     */
+    boolean isUnderPressure() {
+        for (MemoryPoolMXBean pool : pools) {
+            if (pool.isCollectionUsageThresholdExceeded()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forwards threshold notifications to the listeners.
+     */
+    private void handleNotification(Notification notification, Object handback) {
+        if (!MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED.equals(notification.getType())) {
+            return;
+        }
+
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                System.err.println("Memory pressure listener failed: " + e.getMessage());
+            }
+        }
+    }
+}
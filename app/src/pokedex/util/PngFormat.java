@@ -0,0 +1,113 @@
+package pokedex.util;
+
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Cheap structural checks of PNG files that do not decode any pixels.
+ * Used to detect truncated or garbled cache files before they reach the decoder.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class PngFormat {
+
+    private static final byte[] SIGNATURE = {
+        (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'
+    };
+
+    // Length (0), type "IEND" and CRC of the empty IEND chunk that terminates every PNG
+    private static final byte[] IEND_CHUNK = {
+        0, 0, 0, 0, 'I', 'E', 'N', 'D', (byte) 0xAE, 0x42, 0x60, (byte) 0x82
+    };
+
+    // The IHDR chunk must come first: length 13, type "IHDR", 13 data bytes and a CRC
+    private static final byte[] IHDR_PREFIX = {0, 0, 0, 13, 'I', 'H', 'D', 'R'};
+    private static final int IHDR_DATA_LENGTH = 13;
+    private static final int IHDR_END = SIGNATURE.length + IHDR_PREFIX.length + IHDR_DATA_LENGTH + 4;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private PngFormat() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Checks that the bytes start with the PNG signature and end with the IEND chunk,
+     * which catches files that were truncated or overwritten with something else.
+     *
+     * @param bytes the file contents
+     * @return true if the file looks like a complete PNG
+     */
+    static boolean isComplete(byte[] bytes) {
+        if (bytes.length < SIGNATURE.length + IEND_CHUNK.length) {
+            return false;
+        }
+        return Arrays.equals(bytes, 0, SIGNATURE.length, SIGNATURE, 0, SIGNATURE.length)
+            && Arrays.equals(bytes, bytes.length - IEND_CHUNK.length, bytes.length, IEND_CHUNK, 0, IEND_CHUNK.length);
+    }
+
+    /**
+     * Checks that the bytes start with the PNG signature followed by a well-formed
+     * IHDR chunk: correct CRC, non-zero dimensions and a valid bit depth and colour
+     * type combination. Together with {@link #isComplete} this rejects error pages,
+     * truncated and garbled files without decoding them.
+     *
+     * @param bytes the file contents
+     * @return true if the header describes a decodable image
+     */
+    static boolean hasValidHeader(byte[] bytes) {
+        if (bytes.length < IHDR_END
+                || !Arrays.equals(bytes, 0, SIGNATURE.length, SIGNATURE, 0, SIGNATURE.length)
+                || !Arrays.equals(bytes, SIGNATURE.length, SIGNATURE.length + IHDR_PREFIX.length,
+                                  IHDR_PREFIX, 0, IHDR_PREFIX.length)) {
+            return false;
+        }
+
+        // The CRC covers the chunk type and data
+        int typeStart = SIGNATURE.length + 4;
+        int dataStart = SIGNATURE.length + IHDR_PREFIX.length;
+        CRC32 crc = new CRC32();
+        crc.update(bytes, typeStart, 4 + IHDR_DATA_LENGTH);
+        if ((int) crc.getValue() != readInt(bytes, dataStart + IHDR_DATA_LENGTH)) {
+            return false;
+        }
+
+        int width = readInt(bytes, dataStart);
+        int height = readInt(bytes, dataStart + 4);
+        int bitDepth = bytes[dataStart + 8];
+        int colorType = bytes[dataStart + 9];
+        int compression = bytes[dataStart + 10];
+        int filter = bytes[dataStart + 11];
+        int interlace = bytes[dataStart + 12];
+        return width > 0 && height > 0 && isValidBitDepth(colorType, bitDepth)
+            && compression == 0 && filter == 0 && (interlace == 0 || interlace == 1);
+    }
+
+    /**
+     * Checks the bit depths the PNG specification allows for each colour type.
+     */
+    private static boolean isValidBitDepth(int colorType, int bitDepth) {
+        switch (colorType) {
+            case 0: // Greyscale
+                return bitDepth == 1 || bitDepth == 2 || bitDepth == 4 || bitDepth == 8 || bitDepth == 16;
+            case 3: // Indexed
+                return bitDepth == 1 || bitDepth == 2 || bitDepth == 4 || bitDepth == 8;
+            case 2: // RGB
+            case 4: // Greyscale with alpha
+            case 6: // RGBA
+                return bitDepth == 8 || bitDepth == 16;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Reads a big-endian 32-bit integer; PNG widths, heights and CRCs are stored this way.
+     */
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+             | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,391 @@
+package pokedex.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes keyed tasks in {@link ImagePriority} order on virtual threads, at most a
+ * fixed number at a time. A dispatcher thread picks the next task only once a slot is
+ * free, so priorities decide which blocking I/O runs next while waiting tasks cost no
+ * platform threads. A task that waits for other work, such as CPU-bound decoding or
+ * a download another task started, gives its slot up meanwhile (see
+ * {@link #awaitOffSlot}), so the I/O concurrency does not shrink while it waits; a
+ * second, larger limit bounds how many tasks are started in total. Tasks with the
+ * same key are merged, so several callers waiting for the same image share one
+ * execution. Queued tasks can be moved to another priority class when the viewport
+ * changes, and cancelled once nobody waits for them any more. To prevent
+ * starvation, every few dispatches a lower class whose oldest task has waited too
+ * long is served ahead of the higher classes.
+ *
+ * @param <T> the task result type
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class PriorityTaskScheduler<T> {
+
+    private static final long STARVATION_THRESHOLD_NANOS = TimeUnit.SECONDS.toNanos(2);
+    private static final int STARVATION_DISPATCH_INTERVAL = 4;
+
+    private final List<LinkedHashMap<String, Task<T>>> queues = new ArrayList<>();
+    private final Map<String, Task<T>> running = new HashMap<>();
+    private final Semaphore slots;
+    private final Semaphore admissions;
+    private final ThreadLocal<Boolean> holdsSlot = new ThreadLocal<>();
+    private final ExecutorService executor;
+    private final Thread dispatcher;
+    private int dispatchCount;
+    private boolean shutdown;
+
+    /**
+     * Creates a scheduler and starts its dispatcher thread.
+     *
+     * @param name        prefix of the thread names
+     * @param concurrency maximum number of tasks holding a slot (doing I/O) at once
+     * @param maxStarted  maximum number of started tasks, including those waiting off their slot
+     */
+    PriorityTaskScheduler(String name, int concurrency, int maxStarted) {
+        if (concurrency < 1 || maxStarted < concurrency) {
+            throw new IllegalArgumentException("Require 1 <= concurrency <= maxStarted");
+        }
+        for (int i = 0; i < ImagePriority.values().length; i++) {
+            queues.add(new LinkedHashMap<>());
+        }
+
+        // Fair, so tasks coming back from the CPU lane are not overtaken by new ones
+        this.slots = new Semaphore(concurrency, true);
+        this.admissions = new Semaphore(maxStarted);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 0).factory());
+        this.dispatcher = new Thread(this::runDispatcher, name + "-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Submits a task, or joins an already queued or running task with the same key.
+     * Joining a queued task raises it to the more urgent of the two priorities.
+     *
+     * @param key      identifies the work (tasks with equal keys are merged)
+     * @param priority the scheduling class
+     * @param work     the work to execute
+     * @return future completed with the task's result
+     * @throws RejectedExecutionException if the scheduler has been shut down
+     */
+    synchronized CompletableFuture<T> submit(String key, ImagePriority priority, Callable<T> work) {
+        if (shutdown) {
+            throw new RejectedExecutionException("Scheduler has been shut down");
+        }
+
+        Task<T> task = running.get(key);
+        if (task == null) {
+            task = findQueued(key);
+        }
+
+        if (task == null) {
+            task = new Task<>(key, priority, work);
+            queues.get(priority.ordinal()).put(key, task);
+            notify();
+        } else {
+            task.waiters++;
+            if (!task.started && priority.ordinal() < task.priority.ordinal()) {
+                move(task, priority);
+            }
+        }
+        return task.future;
+    }
+
+    /**
+     * Moves a queued task to another priority class. Running or unknown tasks are ignored.
+     *
+     * @param key      the task key
+     * @param priority the new scheduling class
+     */
+    synchronized void reprioritize(String key, ImagePriority priority) {
+        Task<T> task = findQueued(key);
+        if (task != null && task.priority != priority) {
+            move(task, priority);
+        }
+    }
+
+    /**
+     * Withdraws one waiter's interest in a task. When no waiters remain and the task
+     * has not started yet, it is removed from the queue and its future is cancelled.
+     *
+     * @param key the task key
+     * @return true if the task was removed from the queue
+     */
+    synchronized boolean cancel(String key) {
+        Task<T> task = findQueued(key);
+        if (task == null || --task.waiters > 0) {
+            return false;
+        }
+
+        queues.get(task.priority.ordinal()).remove(key);
+        task.future.cancel(false);
+        return true;
+    }
+
+    /**
+     * @return true if no task is queued or running
+     */
+    synchronized boolean isIdle() {
+        if (!running.isEmpty()) {
+            return false;
+        }
+        for (Map<String, Task<T>> queue : queues) {
+            if (!queue.isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return number of queued tasks per priority class, indexed by ordinal
+     */
+    synchronized int[] getQueueDepths() {
+        int[] depths = new int[queues.size()];
+        for (int i = 0; i < depths.length; i++) {
+            depths[i] = queues.get(i).size();
+        }
+        return depths;
+    }
+
+    /**
+     * Runs blocking work that needs no I/O slot, typically waiting for the CPU lane.
+     * Called from a running task, the task's slot is handed to the next queued task
+     * meanwhile and taken back afterwards. Called from any other thread, the work
+     * simply runs.
+     *
+     * @param work the blocking work
+     * @param <R>  the result type
+     * @return the work's result
+     * @throws Exception the work's own failure
+     */
+    <R> R awaitOffSlot(Callable<R> work) throws Exception {
+        if (holdsSlot.get() == null) {
+            return work.call();
+        }
+
+        holdsSlot.remove();
+        slots.release();
+        try {
+            return work.call();
+        } finally {
+            slots.acquireUninterruptibly();
+            holdsSlot.set(Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Stops accepting tasks, cancels queued ones and waits for running tasks to finish.
+     * Tasks still running after the timeout are interrupted.
+     *
+     * @param timeout maximum time to wait in total
+     * @param unit    unit of the timeout
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void shutdown(long timeout, TimeUnit unit) throws InterruptedException {
+        synchronized (this) {
+            shutdown = true;
+            for (Map<String, Task<T>> queue : queues) {
+                for (Task<T> task : queue.values()) {
+                    task.future.cancel(false);
+                }
+                queue.clear();
+            }
+            notifyAll();
+        }
+
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        dispatcher.interrupt();
+        dispatcher.join(Math.max(1, unit.toMillis(timeout)));
+        executor.shutdown();
+        if (!executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Dispatcher loop: waits for a free slot, then starts the next task on a virtual thread.
+     */
+    private void runDispatcher() {
+        while (true) {
+            Task<T> task;
+            try {
+                admissions.acquire();
+                // The slot is only taken once there is work, so a task waiting to get its
+                // slot back never waits for an idle dispatcher
+                if (!awaitWork()) {
+                    return;
+                }
+                slots.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            task = take();
+            if (task == null) {
+                // Shut down, or the task was cancelled while waiting for the slot
+                slots.release();
+                admissions.release();
+                if (isShutdown()) {
+                    return;
+                }
+                continue;
+            }
+
+            try {
+                executor.execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                task.future.cancel(false);
+                finish(task);
+            }
+        }
+    }
+
+    /**
+     * Runs a task and completes its future with the result.
+     */
+    private void run(Task<T> task) {
+        holdsSlot.set(Boolean.TRUE);
+        try {
+            task.future.complete(task.work.call());
+        } catch (Throwable t) {
+            task.future.completeExceptionally(t);
+        } finally {
+            holdsSlot.remove();
+            finish(task);
+        }
+    }
+
+    /**
+     * Frees the slot of a task that is no longer running.
+     */
+    private void finish(Task<T> task) {
+        synchronized (this) {
+            running.remove(task.key, task);
+        }
+        slots.release();
+        admissions.release();
+    }
+
+    /**
+     * Blocks until a task is queued. Returns false once the scheduler is shut down.
+     */
+    private synchronized boolean awaitWork() throws InterruptedException {
+        while (!shutdown) {
+            for (Map<String, Task<T>> queue : queues) {
+                if (!queue.isEmpty()) {
+                    return true;
+                }
+            }
+            wait();
+        }
+        return false;
+    }
+
+    /**
+     * Removes the next task from its queue and marks it running.
+     * Returns null if no task is queued or the scheduler is shut down.
+     */
+    private synchronized Task<T> take() {
+        if (shutdown) {
+            return null;
+        }
+
+        Task<T> task = pickNext();
+        if (task != null) {
+            queues.get(task.priority.ordinal()).remove(task.key);
+            task.started = true;
+            running.put(task.key, task);
+        }
+        return task;
+    }
+
+    private synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    /**
+     * Chooses the next task: normally the head of the most urgent non-empty class,
+     * but periodically the longest-waiting starved head of a lower class.
+     */
+    private Task<T> pickNext() {
+        Task<T> highest = null;
+        Task<T> starved = null;
+        long now = System.nanoTime();
+
+        for (LinkedHashMap<String, Task<T>> queue : queues) {
+            Iterator<Task<T>> iterator = queue.values().iterator();
+            if (!iterator.hasNext()) {
+                continue;
+            }
+
+            Task<T> head = iterator.next();
+            if (highest == null) {
+                highest = head;
+            } else if (now - head.enqueuedAt > STARVATION_THRESHOLD_NANOS
+                    && (starved == null || head.enqueuedAt < starved.enqueuedAt)) {
+                starved = head;
+            }
+        }
+
+        dispatchCount++;
+        if (starved != null && dispatchCount % STARVATION_DISPATCH_INTERVAL == 0) {
+            return starved;
+        }
+        return highest;
+    }
+
+    /**
+     * Finds a task that is still waiting in one of the queues.
+     */
+    private Task<T> findQueued(String key) {
+        for (Map<String, Task<T>> queue : queues) {
+            Task<T> task = queue.get(key);
+            if (task != null) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves a queued task to the end of another class, keeping its original wait time.
+     */
+    private void move(Task<T> task, ImagePriority priority) {
+        queues.get(task.priority.ordinal()).remove(task.key);
+        task.priority = priority;
+        queues.get(priority.ordinal()).put(task.key, task);
+    }
+
+    /**
+     * A keyed unit of work with its result future.
+     */
+    private static final class Task<T> {
+        final String key;
+        final Callable<T> work;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final long enqueuedAt = System.nanoTime();
+        ImagePriority priority;
+        int waiters = 1;
+        boolean started;
+
+        Task(String key, ImagePriority priority, Callable<T> work) {
+            this.key = key;
+            this.priority = priority;
+            this.work = work;
+        }
+    }
+}
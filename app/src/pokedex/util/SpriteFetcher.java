@@ -0,0 +1,199 @@
+package pokedex.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Downloads sprite files over HTTP, optionally as conditional requests.
+ * Responses carry the ETag and Last-Modified validators, which the image cache
+ * stores so it can later ask the server whether a cached file has changed
+ * without downloading it again. Requests to each host are limited by an
+ * {@link AdaptiveLimiter}, so bulk downloads use as much concurrency as the
+ * link and server sustain without timing out. Downloads interrupted by their
+ * caller release their slot without lowering the limit.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class SpriteFetcher {
+
+    private static final int CONNECT_TIMEOUT_MS = 10_000;
+    private static final int READ_TIMEOUT_MS = 30_000;
+
+    // Concurrent requests per host: starting point and bounds of the adaptive limit
+    private static final int INITIAL_HOST_LIMIT = 8;
+    private static final int MIN_HOST_LIMIT = 1;
+    private static final int MAX_HOST_LIMIT = 64;
+    private static final Map<String, AdaptiveLimiter> HOST_LIMITERS = new ConcurrentHashMap<>();
+
+    /**
+     * Result of a fetch: the body, or no body if the server reported the file unchanged.
+     */
+    static final class Response {
+        final byte[] body;
+        final String etag;
+        final long lastModified;
+
+        private Response(byte[] body, String etag, long lastModified) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * @return true if the server answered 304 Not Modified
+         */
+        boolean isNotModified() {
+            return body == null;
+        }
+    }
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private SpriteFetcher() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * Downloads a file.
+     *
+     * @param url the file URL
+     * @return the response with body and validators
+     * @throws FileNotFoundException if the server does not have the file (HTTP 404)
+     * @throws IOException           on any other failure
+     */
+    static Response fetch(URL url) throws IOException {
+        return fetchIfChanged(url, null, 0);
+    }
+
+    /**
+     * Downloads a file unless it still matches the given validators.
+     *
+     * @param url          the file URL
+     * @param etag         the ETag of the cached copy, or null
+     * @param lastModified the Last-Modified time of the cached copy in milliseconds, or 0
+     * @return the response; {@link Response#isNotModified()} if the cached copy is current
+     * @throws FileNotFoundException if the server does not have the file (HTTP 404)
+     * @throws IOException           on any other failure
+     */
+    static Response fetchIfChanged(URL url, String etag, long lastModified) throws IOException {
+        AdaptiveLimiter limiter = getLimiter(url.getHost());
+        long start;
+        try {
+            start = limiter.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to download " + url);
+        }
+
+        // The slot is held until the body is read, but latency is measured to the
+        // response headers, so large files do not look like a slow server
+        boolean released = false;
+        try {
+            URLConnection connection = openConnection(url, etag, lastModified);
+            int status = connection instanceof HttpURLConnection
+                ? ((HttpURLConnection) connection).getResponseCode() : HttpURLConnection.HTTP_OK;
+            long latency = System.nanoTime() - start;
+
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED || status == HttpURLConnection.HTTP_NOT_FOUND) {
+                limiter.onSuccess(start, latency);
+                released = true;
+                discard(connection);
+                if (status == HttpURLConnection.HTTP_NOT_FOUND) {
+                    throw new FileNotFoundException(url.toString());
+                }
+                return new Response(null, etag, lastModified);
+            }
+            if (status / 100 != 2) {
+                discard(connection);
+                throw new IOException("HTTP " + status + " for " + url);
+            }
+
+            byte[] body = readBody(connection);
+            limiter.onSuccess(start, latency);
+            released = true;
+            return new Response(body, connection.getHeaderField("ETag"), connection.getLastModified());
+        } catch (InterruptedIOException e) {
+            if (!(e instanceof SocketTimeoutException)) {
+                // Cancelled by the caller, not a server problem
+                limiter.onCancel();
+                released = true;
+            }
+            throw e;
+        } finally {
+            if (!released) {
+                if (Thread.currentThread().isInterrupted()) {
+                    limiter.onCancel();
+                } else {
+                    limiter.onFailure(start);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the current concurrency limit for a host.
+     *
+     * @param host the host name
+     * @return the number of requests that may run at once
+     */
+    static int getConcurrencyLimit(String host) {
+        return getLimiter(host).getLimit();
+    }
+
+    private static AdaptiveLimiter getLimiter(String host) {
+        return HOST_LIMITERS.computeIfAbsent(host,
+            key -> new AdaptiveLimiter(INITIAL_HOST_LIMIT, MIN_HOST_LIMIT, MAX_HOST_LIMIT));
+    }
+
+    /**
+     * Opens a connection with timeouts and the conditional request headers.
+     */
+    private static URLConnection openConnection(URL url, String etag, long lastModified) throws IOException {
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        if (etag != null) {
+            connection.setRequestProperty("If-None-Match", etag);
+        }
+        if (lastModified > 0) {
+            connection.setIfModifiedSince(lastModified);
+        }
+        return connection;
+    }
+
+    /**
+     * Closes a response without a usable body.
+     */
+    private static void discard(URLConnection connection) {
+        if (connection instanceof HttpURLConnection) {
+            ((HttpURLConnection) connection).disconnect();
+        }
+    }
+
+    /**
+     * Reads the whole response body into memory.
+     */
+    private static byte[] readBody(URLConnection connection) throws IOException {
+        // Using try-with-resources for automatic stream closure
+        try (InputStream inputStream = connection.getInputStream()) {
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(64 * 1024);
+            byte[] buffer = new byte[8192];
+            int bytesRead;
+            while ((bytesRead = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, bytesRead);
+            }
+            return outputStream.toByteArray();
+        }
+    }
+}
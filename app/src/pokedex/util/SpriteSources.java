@@ -0,0 +1,104 @@
+package pokedex.util;
+
+import java.net.URI;
+
+/**
+ * The sprite repositories Pokemon images are downloaded from, and the choice of
+ * source for a given display size. Large images come from the official artwork;
+ * images no larger than the 96px default sprite use the sprite instead, scaled down
+ * or drawn as is, which is several times fewer bytes to download and decode. The two kinds are cached separately: the artwork under the Pokemon ID,
+ * the sprite under an image key with a suffix.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class SpriteSources {
+
+    // Pokemon sprite URLs, highest quality first
+    private static final String[] URLS = {
+        "https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/official-artwork/%s.png",
+        "https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/home/%s.png",
+        "https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/%s.png"
+    };
+
+    // Nominal edge length in pixels of the images each source serves
+    private static final int[] NOMINAL_SIZES = {475, 512, 96};
+
+    private static final int SPRITE_SOURCE = 2;
+    private static final String SPRITE_KEY_SUFFIX = "-sprite";
+
+    // Order in which the sources are tried for each kind of image
+    private static final int[] ARTWORK_ORDER = {0, 1, 2};
+    private static final int[] SPRITE_ORDER = {2, 0, 1};
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private SpriteSources() {
+        throw new AssertionError("Utility class should not be instantiated");
+    }
+
+    /**
+     * @return number of sprite sources
+     */
+    static int count() {
+        return URLS.length;
+    }
+
+    /**
+     * Returns the host serving a source's images.
+     *
+     * @param source the source index
+     * @return the host name
+     */
+    static String host(int source) {
+        return URI.create(url(source, "0")).getHost();
+    }
+
+    /**
+     * Returns the URL of a Pokemon's image at one source.
+     *
+     * @param source    the source index
+     * @param pokemonId the Pokemon ID
+     * @return the image URL
+     */
+    static String url(int source, String pokemonId) {
+        return String.format(URLS[source], pokemonId);
+    }
+
+    /**
+     * Returns the key of the image to load for a display size: the default sprite's
+     * key if the size does not exceed the sprite's, otherwise the Pokemon ID (artwork).
+     * Sprites are never enlarged, since upscaled pixel art looks blurry.
+     *
+     * @param pokemonId the Pokemon ID
+     * @param pixelSize the displayed size in device pixels
+     * @return the image key used by the caches
+     */
+    static String imageKeyFor(String pokemonId, int pixelSize) {
+        return pixelSize <= NOMINAL_SIZES[SPRITE_SOURCE] ? pokemonId + SPRITE_KEY_SUFFIX : pokemonId;
+    }
+
+    /**
+     * Returns the Pokemon ID an image key belongs to.
+     *
+     * @param imageKey the image key
+     * @return the Pokemon ID
+     */
+    static String pokemonIdOf(String imageKey) {
+        return imageKey.endsWith(SPRITE_KEY_SUFFIX)
+            ? imageKey.substring(0, imageKey.length() - SPRITE_KEY_SUFFIX.length())
+            : imageKey;
+    }
+
+    /**
+     * Returns the sources to try for an image key, most suitable first.
+     * Sprites fall back to the artwork for Pokemon without a default sprite.
+     *
+     * @param imageKey the image key
+     * @return source indices in order of preference
+     */
+    static int[] preferenceOrder(String imageKey) {
+        return (imageKey.endsWith(SPRITE_KEY_SUFFIX) ? SPRITE_ORDER : ARTWORK_ORDER).clone();
+    }
+}
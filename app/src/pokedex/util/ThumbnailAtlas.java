@@ -0,0 +1,290 @@
+package pokedex.util;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent atlas of pre-scaled square thumbnails stored as raw pixels.
+ * Tiles of premultiplied ARGB ints are packed into one memory-mapped file, and
+ * an append-only index file maps image keys to tile slots. Reading a thumbnail
+ * is a bulk copy out of the page cache, with no PNG decode and no scaling.
+ * Slots of removed tiles are reused, so replacing thumbnails does not grow the file.
+ *
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class ThumbnailAtlas {
+
+    private static final int TILES_PER_CHUNK = 64;
+    private static final int REMOVED_SLOT = -1;
+
+    // Part of the file names; bumped whenever the meaning of the keys changes
+    // (version 2: thumbnails keyed by image key, see SpriteSources)
+    private static final int FORMAT_VERSION = 2;
+
+    // The index is rewritten on open once it holds this many records per live tile
+    private static final int INDEX_COMPACTION_RATIO = 2;
+
+    private final int tileSize;
+    private final int tileInts;
+    private final long chunkBytes;
+    private final FileChannel tileChannel;
+    private final RandomAccessFile indexFile;
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private int nextSlot;
+
+    /**
+     * Opens (or creates) the atlas for the given tile size in a directory.
+     *
+     * @param directory the cache directory
+     * @param tileSize  the width and height of every tile in pixels
+     * @throws IOException if the atlas files cannot be opened
+     */
+    ThumbnailAtlas(File directory, int tileSize) throws IOException {
+        this.tileSize = tileSize;
+        this.tileInts = tileSize * tileSize;
+        this.chunkBytes = (long) tileInts * Integer.BYTES * TILES_PER_CHUNK;
+
+        deleteOlderVersions(directory, tileSize);
+        String baseName = "thumbnails-v" + FORMAT_VERSION + "-" + tileSize;
+        this.tileChannel = FileChannel.open(new File(directory, baseName + ".atlas").toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.indexFile = new RandomAccessFile(new File(directory, baseName + ".index"), "rw");
+
+        loadIndex();
+    }
+
+    /**
+     * @return the width and height of the stored tiles
+     */
+    int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * Returns the stored thumbnail for a Pokemon.
+     *
+     * @param pokemonId the Pokemon ID
+     * @return a new image with the tile's pixels, or null if not in the atlas
+     */
+    BufferedImage get(String pokemonId) {
+        Integer slot = slots.get(pokemonId);
+        if (slot == null) {
+            return null;
+        }
+
+        try {
+            int[] pixels = new int[tileInts];
+            tileView(slot).get(0, pixels);
+            if (!slot.equals(slots.get(pokemonId))) {
+                // Removed while reading - the slot may already hold another tile
+                return null;
+            }
+
+            BufferedImage image = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB_PRE);
+            image.getRaster().setDataElements(0, 0, tileSize, tileSize, pixels);
+            return image;
+        } catch (IOException e) {
+            System.err.println("Failed to read thumbnail for Pokemon #" + pokemonId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stores a thumbnail, reusing the Pokemon's slot if it already has one.
+     * Images that are not exactly tile-sized are ignored.
+     *
+     * @param pokemonId the Pokemon ID
+     * @param thumbnail the scaled image
+     */
+    synchronized void put(String pokemonId, BufferedImage thumbnail) {
+        if (thumbnail.getWidth() != tileSize || thumbnail.getHeight() != tileSize) {
+            return;
+        }
+
+        Integer existing = slots.get(pokemonId);
+        int slot = existing != null ? existing : freeSlots.isEmpty() ? nextSlot : freeSlots.peek();
+        try {
+            tileView(slot).put(0, toPremultipliedPixels(thumbnail));
+            if (existing == null) {
+                appendIndexRecord(pokemonId, slot);
+                if (slot == nextSlot) {
+                    nextSlot++;
+                } else {
+                    freeSlots.poll();
+                }
+                slots.put(pokemonId, slot);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to store thumbnail for Pokemon #" + pokemonId + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Forgets the thumbnail of a Pokemon, e.g. when its source image changed.
+     *
+     * @param pokemonId the Pokemon ID
+     */
+    synchronized void remove(String pokemonId) {
+        Integer slot = slots.remove(pokemonId);
+        if (slot != null) {
+            try {
+                // The removal is recorded before the slot can be reused, so on replay
+                // the old key never ends up pointing at the new tile
+                appendIndexRecord(pokemonId, REMOVED_SLOT);
+                freeSlots.push(slot);
+            } catch (IOException e) {
+                System.err.println("Failed to remove thumbnail for Pokemon #" + pokemonId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return number of thumbnails in the atlas
+     */
+    int size() {
+        return slots.size();
+    }
+
+    /**
+     * Closes the atlas files. Mapped chunks stay valid until garbage collected.
+     */
+    synchronized void close() {
+        try {
+            indexFile.close();
+            tileChannel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close thumbnail atlas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the index file, truncating a torn final record left by a crash, and
+     * collects the slots no key points at for reuse. An index made mostly of
+     * superseded records is rewritten with only the live ones.
+     */
+    private void loadIndex() throws IOException {
+        long validLength = 0;
+        int recordCount = 0;
+        indexFile.seek(0);
+        try {
+            while (indexFile.getFilePointer() < indexFile.length()) {
+                String pokemonId = indexFile.readUTF();
+                int slot = indexFile.readInt();
+                validLength = indexFile.getFilePointer();
+                recordCount++;
+
+                if (slot == REMOVED_SLOT) {
+                    slots.remove(pokemonId);
+                } else {
+                    slots.put(pokemonId, slot);
+                    nextSlot = Math.max(nextSlot, slot + 1);
+                }
+            }
+        } catch (EOFException e) {
+            System.err.println("Truncating torn thumbnail index record at offset " + validLength);
+            indexFile.setLength(validLength);
+        }
+
+        BitSet used = new BitSet(nextSlot);
+        slots.values().forEach(used::set);
+        for (int slot = used.nextClearBit(0); slot < nextSlot; slot = used.nextClearBit(slot + 1)) {
+            freeSlots.add(slot);
+        }
+
+        if (recordCount > INDEX_COMPACTION_RATIO * Math.max(slots.size(), TILES_PER_CHUNK)) {
+            rewriteIndex();
+        }
+    }
+
+    /**
+     * Replaces the index with one record per live tile. A crash midway only loses
+     * thumbnails, whose slots are then treated as free.
+     */
+    private void rewriteIndex() throws IOException {
+        indexFile.setLength(0);
+        for (Map.Entry<String, Integer> entry : slots.entrySet()) {
+            appendIndexRecord(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Deletes the atlas files of a tile size from before the file names were
+     * versioned. Their tiles were keyed by Pokemon ID before thumbnails could come
+     * from the default sprite, so they cannot be trusted under the current keys.
+     */
+    private static void deleteOlderVersions(File directory, int tileSize) {
+        for (String suffix : new String[] {".atlas", ".index"}) {
+            File stale = new File(directory, "thumbnails-" + tileSize + suffix);
+            if (stale.exists() && !stale.delete()) {
+                System.err.println("Could not delete old thumbnail atlas file: " + stale.getName());
+            }
+        }
+    }
+
+    /**
+     * Appends a single id-to-slot record to the index file.
+     */
+    private void appendIndexRecord(String pokemonId, int slot) throws IOException {
+        indexFile.seek(indexFile.length());
+        indexFile.writeUTF(pokemonId);
+        indexFile.writeInt(slot);
+    }
+
+    /**
+     * Returns an int view covering exactly one tile, mapping its chunk on first use.
+     */
+    private IntBuffer tileView(int slot) throws IOException {
+        MappedByteBuffer chunk = chunk(slot / TILES_PER_CHUNK);
+        int offset = (slot % TILES_PER_CHUNK) * tileInts;
+        return chunk.asIntBuffer().slice(offset, tileInts);
+    }
+
+    /**
+     * Returns the mapped chunk with the given index, growing the file if needed.
+     */
+    private MappedByteBuffer chunk(int chunkIndex) throws IOException {
+        synchronized (chunks) {
+            while (chunks.size() <= chunkIndex) {
+                long position = chunks.size() * chunkBytes;
+                chunks.add(tileChannel.map(FileChannel.MapMode.READ_WRITE, position, chunkBytes));
+            }
+            return chunks.get(chunkIndex);
+        }
+    }
+
+    /**
+     * Extracts the pixels of an image as premultiplied ARGB ints.
+     */
+    private int[] toPremultipliedPixels(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_ARGB_PRE) {
+            return (int[]) image.getRaster().getDataElements(0, 0, tileSize, tileSize, null);
+        }
+
+        BufferedImage converted = new BufferedImage(tileSize, tileSize, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D graphics = converted.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, null);
+        } finally {
+            graphics.dispose();
+        }
+        return (int[]) converted.getRaster().getDataElements(0, 0, tileSize, tileSize, null);
+    }
+}
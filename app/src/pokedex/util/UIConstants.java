@@ -59,7 +59,9 @@ public final class UIConstants {
         // Component sizes
         public static final Dimension SEARCH_FIELD = new Dimension(300, 30);
         public static final Dimension IMAGE_DETAILS = new Dimension(310, 310);
+        public static final int IMAGE_THUMBNAIL = 130;
         public static final Dimension PROGRESS_BAR = new Dimension(300, 25);
+        public static final Dimension PRELOAD_PROGRESS_BAR = new Dimension(200, 16);
 
         // Grid layout spacing
         public static final int GRID_HGAP = 10;
@@ -89,6 +91,12 @@ public final class UIConstants {
         public static final String APP_TITLE_FALLBACK = "Pokédex";
         public static final String AUTHOR = "Eryk Darnowski (7741) - II inf. NST (24/25)";
         public static final String BACK_BUTTON = "← Wróć";
+        public static final String PRELOAD_STATUS = "Pobieranie obrazków w tle";
+        public static final String PRELOAD_PAUSED = "Pobieranie obrazków wstrzymane";
+        public static final String PRELOAD_PAUSE = "Wstrzymaj";
+        public static final String PRELOAD_RESUME = "Wznów";
+        public static final String PRELOAD_CANCEL = "Anuluj";
+        public static final String ETA_PREFIX = "pozostało ";
 
         // Error messages
         public static final String NO_IMAGE = "BRAK OBRAZKA<br>W API";
@@ -97,7 +105,8 @@ public final class UIConstants {
         public static final String ERROR_STATS = "Błąd wyświetlania danych Pokémona";
 
         // Tooltips and placeholders
-        public static final String TOOLTIP_SEARCH = "Wyszukaj Pokémona po nazwie lub numerze ID...";
+        public static final String TOOLTIP_SEARCH = "Wyszukaj Pokémona po nazwie, numerze ID lub zdolności (np. @levitate)...";
+        public static final String ABILITY_SEARCH_PREFIX = "@";
         public static final String PLACEHOLDER_SEARCH = "Pikachu";
     }
 }
\ No newline at end of file
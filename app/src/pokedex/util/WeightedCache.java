@@ -0,0 +1,315 @@
+package pokedex.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Thread-safe, memory-bounded cache with weight-aware LRU eviction.
+ * Each entry is weighed (e.g. by its pixel byte size) and the total weight is kept
+ * under a fixed budget. A frequency sketch implements TinyLFU-style admission:
+ * a new entry only displaces the least recently used ones if it has been requested
+ * at least as often, so a one-off scroll through the whole grid cannot flush the
+ * images that are actually reused.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author Eryk Darnowski (7741)
+ * @version 1.0.0
+ */
+final class WeightedCache<K, V> {
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final FrequencySketch sketch = new FrequencySketch();
+    private final ToLongFunction<V> weigher;
+    private final long maxWeight;
+    private long totalWeight;
+
+    // Statistics
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private long rejectionCount;
+
+    /**
+     * Creates a cache bounded by the given total weight.
+     *
+     * @param maxWeight the maximum total weight of all entries
+     * @param weigher   function computing the weight of a value
+     */
+    WeightedCache(long maxWeight, ToLongFunction<V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the cached value and marks it as recently used.
+     *
+     * @param key the cache key
+     * @return the cached value, or null if absent
+     */
+    synchronized V get(K key) {
+        sketch.increment(key);
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return entry.value;
+    }
+
+    /**
+     * Offers a value to the cache. The value is admitted if it fits the budget,
+     * or if it is used at least as frequently as the entries it would evict.
+     * A rejected value leaves any previous value for the key in place.
+     *
+     * @param key   the cache key
+     * @param value the value to cache
+     * @return true if the value was stored
+     */
+    synchronized boolean put(K key, V value) {
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        if (weight > maxWeight || !admit(key, weight)) {
+            rejectionCount++;
+            return false;
+        }
+
+        Entry<V> previous = entries.put(key, new Entry<>(value, weight));
+        if (previous != null) {
+            totalWeight -= previous.weight;
+        }
+        totalWeight += weight;
+        return true;
+    }
+
+    /**
+     * Removes a single entry.
+     *
+     * @param key the cache key
+     */
+    synchronized void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            totalWeight -= entry.weight;
+        }
+    }
+
+    /**
+     * Removes all entries whose key matches, e.g. every cached size of one image.
+     *
+     * @param filter selects the keys to remove
+     * @return number of removed entries
+     */
+    synchronized int removeIf(Predicate<? super K> filter) {
+        int removed = 0;
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = iterator.next();
+            if (filter.test(entry.getKey())) {
+                totalWeight -= entry.getValue().weight;
+                iterator.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all entries. Statistics are kept.
+     */
+    synchronized void clear() {
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    /**
+     * Evicts least recently used entries until the total weight is at most the target,
+     * e.g. to give memory back under heap pressure.
+     *
+     * @param targetWeight the total weight to shrink to
+     * @return number of evicted entries
+     */
+    synchronized int trimTo(long targetWeight) {
+        int evicted = 0;
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (totalWeight > targetWeight && iterator.hasNext()) {
+            totalWeight -= iterator.next().weight;
+            iterator.remove();
+            evictionCount++;
+            evicted++;
+        }
+        return evicted;
+    }
+
+    /**
+     * @return the current total weight of all entries
+     */
+    synchronized long weight() {
+        return totalWeight;
+    }
+
+    /**
+     * @return number of cached entries
+     */
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return a snapshot of the cache statistics
+     */
+    synchronized Stats stats() {
+        return new Stats(hitCount, missCount, evictionCount, rejectionCount,
+                         entries.size(), totalWeight, maxWeight);
+    }
+
+    /**
+     * Evicts least recently used entries to make room for the candidate, unless one of
+     * the victims is used more often than the candidate (in which case nothing is evicted).
+     * Ties favour the candidate, so equally popular entries are replaced in LRU order.
+     * A previous entry for the candidate's key counts as freed space and is never a victim.
+     */
+    private boolean admit(K candidateKey, long weight) {
+        Entry<V> previous = entries.get(candidateKey);
+        long required = totalWeight - (previous != null ? previous.weight : 0) + weight;
+        if (required <= maxWeight) {
+            return true;
+        }
+
+        // Collect victims in LRU order and make sure the candidate is worth them all
+        int candidateFrequency = sketch.frequency(candidateKey);
+        long freed = 0;
+        for (Map.Entry<K, Entry<V>> victim : entries.entrySet()) {
+            if (required - freed <= maxWeight) {
+                break;
+            }
+            if (victim.getKey().equals(candidateKey)) {
+                continue;
+            }
+            if (sketch.frequency(victim.getKey()) > candidateFrequency) {
+                return false;
+            }
+            freed += victim.getValue().weight;
+        }
+
+        Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+        while (freed > 0 && iterator.hasNext()) {
+            Map.Entry<K, Entry<V>> victim = iterator.next();
+            if (!victim.getKey().equals(candidateKey)) {
+                freed -= victim.getValue().weight;
+                totalWeight -= victim.getValue().weight;
+                iterator.remove();
+                evictionCount++;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Cached value with its precomputed weight.
+     */
+    private static final class Entry<V> {
+        final V value;
+        final long weight;
+
+        Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Immutable snapshot of cache statistics.
+     */
+    static final class Stats {
+        final long hits;
+        final long misses;
+        final long evictions;
+        final long rejections;
+        final int size;
+        final long weight;
+        final long maxWeight;
+
+        Stats(long hits, long misses, long evictions, long rejections, int size, long weight, long maxWeight) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.rejections = rejections;
+            this.size = size;
+            this.weight = weight;
+            this.maxWeight = maxWeight;
+        }
+
+        /**
+         * @return fraction of lookups served from the cache, 0 if there were none
+         */
+        double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("entries=%d, weight=%d/%d KB, hits=%d, misses=%d (%.1f%%), evictions=%d, rejections=%d",
+                size, weight / 1024, maxWeight / 1024, hits, misses, hitRate() * 100, evictions, rejections);
+        }
+    }
+
+    /**
+     * Count-min sketch of recent access frequencies with periodic aging,
+     * so the admission policy favours entries that are popular now.
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int WIDTH = 4096; // power of two
+        private static final int MAX_COUNT = 15;
+        private static final int RESET_INTERVAL = WIDTH * 10;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[][] counters = new byte[DEPTH][WIDTH];
+        private int additions;
+
+        void increment(Object key) {
+            int hash = key.hashCode();
+            for (int row = 0; row < DEPTH; row++) {
+                int index = indexOf(hash, row);
+                if (counters[row][index] < MAX_COUNT) {
+                    counters[row][index]++;
+                }
+            }
+
+            if (++additions >= RESET_INTERVAL) {
+                age();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = key.hashCode();
+            int min = MAX_COUNT;
+            for (int row = 0; row < DEPTH; row++) {
+                min = Math.min(min, counters[row][indexOf(hash, row)]);
+            }
+            return min;
+        }
+
+        private void age() {
+            for (byte[] row : counters) {
+                for (int i = 0; i < row.length; i++) {
+                    row[i] >>= 1;
+                }
+            }
+            additions /= 2;
+        }
+
+        private static int indexOf(int hash, int row) {
+            int h = (hash ^ SEEDS[row]) * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & (WIDTH - 1);
+        }
+    }
+}